@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandler;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.util.Resource;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Supplier;
+
+/**
+ * Base class for decoder benchmarks. The encoded byte stream is written into an {@link EmbeddedChannel} in chunks
+ * of {@link #chunkSize} bytes, which mimics how the bytes arrive from the transport:
+ * <ul>
+ *     <li>{@code 1}: worst case, every read carries a single byte</li>
+ *     <li>{@code 1460}: a typical TCP segment (Ethernet MTU minus IP and TCP headers)</li>
+ *     <li>{@code 65536}: a large read, as done by the default receive buffer allocator</li>
+ * </ul>
+ */
+public abstract class AbstractDecoderBenchmark extends AbstractMicrobenchmark {
+
+    /**
+     * Minimal length of the encoded stream used by the decoder benchmarks.
+     */
+    protected static final int STREAM_LENGTH = 64 * 1024;
+
+    @Param({ "1", "1460", "65536" })
+    public int chunkSize;
+
+    /**
+     * Writes {@code stream} into the given {@link EmbeddedChannel} in chunks of {@link #chunkSize} bytes and
+     * consumes every decoded message as soon as it is available.
+     *
+     * @return the number of decoded messages
+     */
+    protected final int decodeFragmented(EmbeddedChannel channel, byte[] stream, Blackhole bh) {
+        int decoded = 0;
+        for (int offset = 0; offset < stream.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, stream.length - offset);
+            channel.writeInbound(channel.bufferAllocator().allocate(length).writeBytes(stream, offset, length));
+
+            Object msg;
+            while ((msg = channel.readInbound()) != null) {
+                bh.consume(msg);
+                Resource.dispose(msg);
+                decoded++;
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Encodes messages provided by {@code messages} with the given encoders until the encoded stream is at least
+     * {@code minLength} bytes long.
+     */
+    protected static byte[] encodeStream(Supplier<?> messages, int minLength, ChannelHandler... encoders) {
+        EmbeddedChannel channel = new EmbeddedChannel(encoders);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(minLength);
+        try {
+            while (stream.size() < minLength) {
+                channel.writeOutbound(messages.get());
+                for (Buffer buffer = channel.readOutbound(); buffer != null; buffer = channel.readOutbound()) {
+                    byte[] bytes = new byte[buffer.readableBytes()];
+                    buffer.readBytes(bytes, 0, bytes.length);
+                    buffer.close();
+                    stream.write(bytes, 0, bytes.length);
+                }
+            }
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+        return stream.toByteArray();
+    }
+}
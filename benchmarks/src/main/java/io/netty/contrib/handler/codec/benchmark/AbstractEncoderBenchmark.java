@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.util.Resource;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Base class for encoder benchmarks.
+ */
+public abstract class AbstractEncoderBenchmark extends AbstractMicrobenchmark {
+
+    /**
+     * Writes {@code msg} through the outbound pipeline of the given {@link EmbeddedChannel} and releases everything
+     * the encoders produced.
+     *
+     * @return the number of bytes produced by the encoders
+     */
+    protected static int encodeAndRelease(EmbeddedChannel channel, Object msg, Blackhole bh) {
+        channel.writeOutbound(msg);
+        int encoded = 0;
+        Object out;
+        while ((out = channel.readOutbound()) != null) {
+            if (out instanceof Buffer) {
+                encoded += ((Buffer) out).readableBytes();
+            }
+            bh.consume(out);
+            Resource.dispose(out);
+        }
+        return encoded;
+    }
+}
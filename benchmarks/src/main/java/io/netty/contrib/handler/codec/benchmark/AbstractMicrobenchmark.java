@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for all JMH benchmarks of this project. It only carries the common run configuration, so results
+ * of different benchmarks (and of different releases) can be compared with each other.
+ * <p>
+ * Build the benchmarks with {@code mvn package -DskipTests} and run them with
+ * {@code java -jar benchmarks/target/benchmarks.jar [regexp]}.
+ */
+@Fork(value = 2, jvmArgsAppend = {
+        "-server",
+        "-Dio.netty5.leakDetectionLevel=disabled",
+        "-Dio.netty5.buffer.leakDetectionEnabled=false",
+        "-Dio.netty5.buffer.lifecycleTracingEnabled=false",
+        // Required by JBoss Marshalling to access the internals of the JDK collections on Java 9+.
+        "--add-opens=java.base/java.util=ALL-UNNAMED",
+        "--add-opens=java.base/java.util.concurrent=ALL-UNNAMED",
+        "--add-opens=java.base/java.lang=ALL-UNNAMED"
+})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public abstract class AbstractMicrobenchmark {
+}
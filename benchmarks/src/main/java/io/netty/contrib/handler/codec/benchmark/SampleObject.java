@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A small DTO used by the Java serialization and JBoss Marshalling benchmarks. It mixes primitives, strings,
+ * arrays and a nested list, which is what a typical RPC payload looks like.
+ */
+public final class SampleObject implements Serializable {
+    private static final long serialVersionUID = -5178472853468390734L;
+
+    private final long id;
+    private final String name;
+    private final int[] values;
+    private final List<SampleObject> children;
+
+    private SampleObject(long id, String name, int[] values, List<SampleObject> children) {
+        this.id = id;
+        this.name = name;
+        this.values = values;
+        this.children = children;
+    }
+
+    /**
+     * Creates an object graph with the given number of children below the root object.
+     */
+    public static SampleObject newInstance(int children) {
+        List<SampleObject> list = new ArrayList<>(children);
+        for (int i = 0; i < children; i++) {
+            list.add(new SampleObject(i, "child-" + i, new int[] { i, i + 1, i + 2, i + 3 }, new ArrayList<>()));
+        }
+        return new SampleObject(-1, "root", new int[0], list);
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int[] values() {
+        return values;
+    }
+
+    public List<SampleObject> children() {
+        return children;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.json;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.json.JsonObjectDecoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmarks {@link JsonObjectDecoder} on a stream of JSON documents of {@link #documentSize} bytes.
+ */
+public class JsonObjectDecoderBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "256", "4096", "65536" })
+    public int documentSize;
+
+    @Param({ "false", "true" })
+    public boolean streamArrayElements;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        byte[] document = newDocument(documentSize, streamArrayElements);
+        int count = Math.max(1, STREAM_LENGTH / document.length);
+        stream = new byte[document.length * count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(document, 0, stream, i * document.length, document.length);
+        }
+        channel = new EmbeddedChannel(new JsonObjectDecoder(Integer.MAX_VALUE, streamArrayElements));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+
+    /**
+     * Creates a JSON array of objects that contain nested objects, arrays, escaped quotes and backslashes, and
+     * whitespace. When array elements are not streamed, the array is wrapped into an object.
+     */
+    static byte[] newDocument(int minSize, boolean topLevelArray) {
+        StringBuilder json = new StringBuilder(minSize + 256);
+        json.append(topLevelArray ? "[" : "{\"items\": [");
+        for (int i = 0; json.length() < minSize; i++) {
+            if (i > 0) {
+                json.append(",\n  ");
+            }
+            json.append("{\"id\": ").append(i)
+                .append(", \"name\": \"item \\\"").append(i).append("\\\" {[braces]}\"")
+                .append(", \"path\": \"C:\\\\data\\\\").append(i).append("\"")
+                .append(", \"tags\": [\"a\", \"b\", \"c\"]")
+                .append(", \"nested\": {\"enabled\": true, \"ratio\": 0.5, \"empty\": null}}");
+        }
+        json.append(topLevelArray ? "]" : "]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
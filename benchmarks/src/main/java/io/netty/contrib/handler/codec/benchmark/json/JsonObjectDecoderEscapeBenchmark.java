@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.json;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.json.JsonObjectDecoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmarks {@link JsonObjectDecoder} on adversarial input: a single string made of runs of
+ * {@link #backslashRun} escaped backslashes, each followed by an escaped double quote. The length of the stream
+ * is the same for every run length, so the score should not depend on {@link #backslashRun} if every byte is only
+ * inspected once.
+ */
+public class JsonObjectDecoderEscapeBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "1", "64", "4096" })
+    public int backslashRun;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder(STREAM_LENGTH + 2 * backslashRun + 16);
+        json.append("{\"s\": \"");
+        while (json.length() < STREAM_LENGTH) {
+            json.append("\\\\".repeat(backslashRun)).append("\\\"");
+        }
+        json.append("\"}");
+        stream = json.toString().getBytes(StandardCharsets.UTF_8);
+        channel = new EmbeddedChannel(new JsonObjectDecoder(Integer.MAX_VALUE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+}
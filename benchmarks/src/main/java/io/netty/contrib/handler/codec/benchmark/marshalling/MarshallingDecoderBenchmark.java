@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.marshalling;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.benchmark.SampleObject;
+import io.netty.contrib.handler.codec.marshalling.DefaultMarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.MarshallingDecoder;
+import io.netty.contrib.handler.codec.marshalling.MarshallingEncoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link MarshallingDecoder} on a stream of {@link SampleObject}s with {@link #children} children,
+ * using the {@link #provider} to get an {@link org.jboss.marshalling.Unmarshaller} per message.
+ */
+public class MarshallingDecoderBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "river", "serial" })
+    public String protocol;
+
+    @Param({ "1", "64" })
+    public int children;
+
+    @Param({ "default", "threadLocal", "contextBound", "pooled" })
+    public String provider;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        MarshallerFactory factory = MarshallingProtocols.factory(protocol);
+        MarshallingConfiguration configuration = MarshallingProtocols.configuration(protocol);
+        SampleObject object = SampleObject.newInstance(children);
+        stream = encodeStream(() -> object, STREAM_LENGTH,
+                new MarshallingEncoder(new DefaultMarshallerProvider(factory, configuration)));
+        channel = new EmbeddedChannel(new MarshallingDecoder(
+                MarshallingProtocols.unmarshallerProvider(provider, protocol), Integer.MAX_VALUE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.marshalling;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractEncoderBenchmark;
+import io.netty.contrib.handler.codec.benchmark.SampleObject;
+import io.netty.contrib.handler.codec.marshalling.MarshallingEncoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link MarshallingEncoder} for {@link SampleObject}s with {@link #children} children, using the
+ * {@link #provider} to get a {@link org.jboss.marshalling.Marshaller} per message.
+ */
+public class MarshallingEncoderBenchmark extends AbstractEncoderBenchmark {
+
+    @Param({ "river", "serial" })
+    public String protocol;
+
+    @Param({ "1", "64", "4096" })
+    public int children;
+
+    @Param({ "default", "threadLocal", "pooled" })
+    public String provider;
+
+    private SampleObject object;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        object = SampleObject.newInstance(children);
+        channel = new EmbeddedChannel(new MarshallingEncoder(
+                MarshallingProtocols.marshallerProvider(provider, protocol)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode(Blackhole bh) {
+        return encodeAndRelease(channel, object, bh);
+    }
+}
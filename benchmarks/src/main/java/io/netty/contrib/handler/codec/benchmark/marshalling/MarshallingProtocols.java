@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.marshalling;
+
+import io.netty.contrib.handler.codec.marshalling.ContextBoundUnmarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.DefaultMarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.DefaultUnmarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.MarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.PooledMarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.PooledUnmarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.ThreadLocalMarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.ThreadLocalUnmarshallerProvider;
+import io.netty.contrib.handler.codec.marshalling.UnmarshallerProvider;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+
+/**
+ * The JBoss Marshalling protocols and providers covered by the marshalling benchmarks.
+ */
+final class MarshallingProtocols {
+
+    private MarshallingProtocols() {
+        // Unused
+    }
+
+    static MarshallerFactory factory(String protocol) {
+        MarshallerFactory factory = Marshalling.getProvidedMarshallerFactory(protocol);
+        if (factory == null) {
+            throw new IllegalArgumentException("unknown marshalling protocol: " + protocol);
+        }
+        return factory;
+    }
+
+    static MarshallingConfiguration configuration(String protocol) {
+        MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setVersion("river".equals(protocol) ? 3 : 5);
+        return configuration;
+    }
+
+    static MarshallerProvider marshallerProvider(String provider, String protocol) {
+        MarshallerFactory factory = factory(protocol);
+        MarshallingConfiguration configuration = configuration(protocol);
+        switch (provider) {
+            case "default":
+                return new DefaultMarshallerProvider(factory, configuration);
+            case "threadLocal":
+                return new ThreadLocalMarshallerProvider(factory, configuration);
+            case "pooled":
+                return new PooledMarshallerProvider(factory, configuration);
+            default:
+                throw new IllegalArgumentException("unknown marshaller provider: " + provider);
+        }
+    }
+
+    static UnmarshallerProvider unmarshallerProvider(String provider, String protocol) {
+        MarshallerFactory factory = factory(protocol);
+        MarshallingConfiguration configuration = configuration(protocol);
+        switch (provider) {
+            case "default":
+                return new DefaultUnmarshallerProvider(factory, configuration);
+            case "threadLocal":
+                return new ThreadLocalUnmarshallerProvider(factory, configuration);
+            case "contextBound":
+                return new ContextBoundUnmarshallerProvider(factory, configuration);
+            case "pooled":
+                return new PooledUnmarshallerProvider(factory, configuration);
+            default:
+                throw new IllegalArgumentException("unknown unmarshaller provider: " + provider);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.protobuf;
+
+import com.google.protobuf.Struct;
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ProtobufVarint32FrameDecoder} followed by {@link ProtobufDecoder} on a stream of
+ * varint32 length-prefixed messages of {@link #messageSize} bytes.
+ */
+public class ProtobufDecoderBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "32", "1024", "16384" })
+    public int messageSize;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        Struct message = ProtobufMessages.newMessage(messageSize);
+        stream = encodeStream(() -> message, STREAM_LENGTH,
+                new ProtobufVarint32LengthFieldPrepender(), new ProtobufEncoder());
+        channel = new EmbeddedChannel(new ProtobufVarint32FrameDecoder(),
+                new ProtobufDecoder(Struct.getDefaultInstance()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+}
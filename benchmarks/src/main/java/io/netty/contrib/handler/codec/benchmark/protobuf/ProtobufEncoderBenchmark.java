@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.protobuf;
+
+import com.google.protobuf.Struct;
+import io.netty.contrib.handler.codec.benchmark.AbstractEncoderBenchmark;
+import io.netty.contrib.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldEncoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ProtobufEncoder} followed by {@link ProtobufVarint32LengthFieldPrepender}, or the
+ * {@link ProtobufVarint32LengthFieldEncoder} if {@link #fused}, for messages of {@link #messageSize} bytes.
+ */
+public class ProtobufEncoderBenchmark extends AbstractEncoderBenchmark {
+
+    @Param({ "32", "1024", "16384" })
+    public int messageSize;
+
+    @Param({ "false", "true" })
+    public boolean fused;
+
+    private Struct message;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        message = ProtobufMessages.newMessage(messageSize);
+        channel = fused ? new EmbeddedChannel(new ProtobufVarint32LengthFieldEncoder())
+                : new EmbeddedChannel(new ProtobufVarint32LengthFieldPrepender(), new ProtobufEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode(Blackhole bh) {
+        return encodeAndRelease(channel, message, bh);
+    }
+}
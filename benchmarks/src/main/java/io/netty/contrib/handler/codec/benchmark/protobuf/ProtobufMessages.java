@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.protobuf;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+/**
+ * Creates the protobuf messages used by the protobuf benchmarks.
+ */
+final class ProtobufMessages {
+
+    private ProtobufMessages() {
+        // Unused
+    }
+
+    /**
+     * Creates a {@link Struct} whose serialized form is at least {@code minSize} bytes long.
+     */
+    static Struct newMessage(int minSize) {
+        Struct.Builder builder = Struct.newBuilder();
+        for (int i = 0; builder.build().getSerializedSize() < minSize; i++) {
+            switch (i % 4) {
+                case 0:
+                    builder.putFields("s" + i, Value.newBuilder().setStringValue("value-" + i).build());
+                    break;
+                case 1:
+                    builder.putFields("n" + i, Value.newBuilder().setNumberValue(i * 1.5).build());
+                    break;
+                case 2:
+                    builder.putFields("b" + i, Value.newBuilder().setBoolValue(i % 3 == 0).build());
+                    break;
+                default:
+                    builder.putFields("l" + i, Value.newBuilder().setListValue(ListValue.newBuilder()
+                            .addValues(Value.newBuilder().setNumberValue(i))
+                            .addValues(Value.newBuilder().setStringValue("x"))).build());
+                    break;
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.protobuf;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty5.buffer.BufferAllocator;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ProtobufVarint32FrameDecoder} alone on a stream of varint32 length-prefixed frames of
+ * {@link #frameSize} bytes, where parsing the length field is a significant part of the work for small frames.
+ * With {@link #drainFrames} all complete frames are extracted in a single decode call.
+ */
+public class ProtobufVarint32FrameDecoderBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "20", "60", "1024" })
+    public int frameSize;
+
+    @Param({ "false", "true" })
+    public boolean drainFrames;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        byte[] frame = new byte[frameSize];
+        stream = encodeStream(() -> BufferAllocator.onHeapUnpooled().copyOf(frame), STREAM_LENGTH,
+                new ProtobufVarint32LengthFieldPrepender());
+        channel = new EmbeddedChannel(new ProtobufVarint32FrameDecoder(drainFrames));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+}
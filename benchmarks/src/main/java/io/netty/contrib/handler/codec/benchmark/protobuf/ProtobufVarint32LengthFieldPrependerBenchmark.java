@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.protobuf;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractEncoderBenchmark;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldCompositePrepender;
+import io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty5.buffer.BufferAllocator;
+import io.netty5.channel.ChannelHandler;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks prepending the varint32 length field to bodies of {@link #bodySize} bytes, either by copying
+ * ({@link ProtobufVarint32LengthFieldPrepender}) or not ({@link ProtobufVarint32LengthFieldCompositePrepender}).
+ * The body is allocated, but not filled, for every invocation so that all modes pay the same for it.
+ */
+public class ProtobufVarint32LengthFieldPrependerBenchmark extends AbstractEncoderBenchmark {
+
+    public enum Mode {
+        COPY,
+        COMPOSITE,
+        SEPARATE
+    }
+
+    @Param({ "64", "16384", "1048576" })
+    public int bodySize;
+
+    @Param
+    public Mode mode;
+
+    private BufferAllocator allocator;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        allocator = BufferAllocator.offHeapPooled();
+        final ChannelHandler prepender;
+        switch (mode) {
+            case COPY:
+                prepender = new ProtobufVarint32LengthFieldPrepender();
+                break;
+            case COMPOSITE:
+                prepender = new ProtobufVarint32LengthFieldCompositePrepender(true);
+                break;
+            default:
+                prepender = new ProtobufVarint32LengthFieldCompositePrepender(false);
+                break;
+        }
+        channel = new EmbeddedChannel(prepender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        allocator.close();
+    }
+
+    @Benchmark
+    public int encode(Blackhole bh) {
+        return encodeAndRelease(channel, allocator.allocate(bodySize).writerOffset(bodySize), bh);
+    }
+}
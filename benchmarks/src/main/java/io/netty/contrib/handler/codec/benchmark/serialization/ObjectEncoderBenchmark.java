@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.serialization;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractEncoderBenchmark;
+import io.netty.contrib.handler.codec.benchmark.SampleObject;
+import io.netty.contrib.handler.codec.serialization.ObjectEncoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ObjectEncoder} for {@link SampleObject}s with {@link #children} children.
+ */
+public class ObjectEncoderBenchmark extends AbstractEncoderBenchmark {
+
+    @Param({ "1", "64" })
+    public int children;
+
+    private SampleObject object;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        object = SampleObject.newInstance(children);
+        channel = new EmbeddedChannel(new ObjectEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode(Blackhole bh) {
+        return encodeAndRelease(channel, object, bh);
+    }
+}
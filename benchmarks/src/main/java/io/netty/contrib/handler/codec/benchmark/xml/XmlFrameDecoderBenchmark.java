@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.benchmark.xml;
+
+import io.netty.contrib.handler.codec.benchmark.AbstractDecoderBenchmark;
+import io.netty.contrib.handler.codec.xml.XmlFrameDecoder;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmarks {@link XmlFrameDecoder} on a stream of XML documents of {@link #documentSize} bytes.
+ */
+public class XmlFrameDecoderBenchmark extends AbstractDecoderBenchmark {
+
+    @Param({ "256", "4096", "65536" })
+    public int documentSize;
+
+    @Param({ "true", "false" })
+    public boolean copyFrames;
+
+    private byte[] stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        byte[] document = newDocument(documentSize);
+        int count = Math.max(1, STREAM_LENGTH / document.length);
+        stream = new byte[document.length * count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(document, 0, stream, i * document.length, document.length);
+        }
+        channel = new EmbeddedChannel(new XmlFrameDecoder(Integer.MAX_VALUE, copyFrames));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int decode(Blackhole bh) {
+        return decodeFragmented(channel, stream, bh);
+    }
+
+    /**
+     * Creates a SOAP-like XML document with a declaration, comments, attributes, self-closing elements and
+     * CDATA sections.
+     */
+    static byte[] newDocument(int minSize) {
+        StringBuilder xml = new StringBuilder(minSize + 256);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\"><env:Body>\n");
+        for (int i = 0; xml.length() < minSize; i++) {
+            xml.append("  <!-- item ").append(i).append(" -->\n")
+               .append("  <item id=\"").append(i).append("\"><name>item-").append(i).append("</name>")
+               .append("<flag/><data><![CDATA[<not>a</tag> & ]] >]]></data></item>\n");
+        }
+        xml.append("</env:Body></env:Envelope>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+
+/**
+ * Predicts the size of the next encoded message from the sizes of the recently encoded ones, so that an encoder can
+ * allocate an output buffer which is large enough up front instead of growing it while encoding.
+ * <p>
+ * Like the {@code AdaptiveRecvByteBufAllocator}, the prediction grows as soon as a larger message is seen and only
+ * shrinks gradually while the messages stay smaller. It always leaves some headroom above the size of the messages
+ * it learned from and stays within the configured minimum and maximum.
+ * <p>
+ * An instance may be shared by several handlers or channels, in which case it learns the combined sizes. Concurrent
+ * updates are not synchronized, as a lost update only makes the next prediction slightly less accurate.
+ * <p>
+ * The number of {@linkplain #messages() encoded messages} and of the ones which did not fit into the predicted
+ * buffer and had to {@linkplain #reallocations() grow it} are tracked for monitoring.
+ */
+public final class EncodedSizePredictor {
+
+    static final int DEFAULT_MINIMUM = 64;
+    static final int DEFAULT_INITIAL = 256;
+    static final int DEFAULT_MAXIMUM = 64 * 1024;
+
+    private final int minimum;
+    private final int maximum;
+    private volatile int nextSize;
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder reallocations = new LongAdder();
+
+    /**
+     * Creates a new instance which starts with {@code 256} bytes and predicts between {@code 64} bytes and
+     * {@code 64} KiB.
+     */
+    public EncodedSizePredictor() {
+        this(DEFAULT_MINIMUM, DEFAULT_INITIAL, DEFAULT_MAXIMUM);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param minimum the smallest size to predict
+     * @param initial the size to predict before any message was encoded
+     * @param maximum the largest size to predict; larger messages still grow the buffer while being encoded
+     */
+    public EncodedSizePredictor(int minimum, int initial, int maximum) {
+        checkPositive(minimum, "minimum");
+        if (initial < minimum) {
+            throw new IllegalArgumentException("initial: " + initial + " (expected: >= " + minimum + ')');
+        }
+        if (maximum < initial) {
+            throw new IllegalArgumentException("maximum: " + maximum + " (expected: >= " + initial + ')');
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        nextSize = initial;
+    }
+
+    /**
+     * Returns the size of the buffer to allocate for the next message.
+     */
+    public int nextSize() {
+        return nextSize;
+    }
+
+    /**
+     * Records the size of an encoded message.
+     *
+     * @param encodedSize   the number of bytes the message was encoded to
+     * @param allocatedSize the size of the buffer which was allocated for it
+     */
+    public void record(int encodedSize, int allocatedSize) {
+        messages.increment();
+        if (encodedSize > allocatedSize) {
+            reallocations.increment();
+        }
+
+        int target = encodedSize + (encodedSize >>> 3);
+        if (target < 0) {
+            target = maximum;
+        }
+        int size = nextSize;
+        if (target > size) {
+            size = target;
+        } else {
+            size -= (size - target) >>> 3;
+        }
+        nextSize = Math.max(minimum, Math.min(size, maximum));
+    }
+
+    /**
+     * Returns the number of messages which were {@linkplain #record(int, int) recorded}.
+     */
+    public long messages() {
+        return messages.sum();
+    }
+
+    /**
+     * Returns the number of messages which were larger than the buffer allocated for them, so that it had to grow
+     * while encoding.
+     */
+    public long reallocations() {
+        return reallocations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EncodedSizePredictor(nextSize: " + nextSize + ", messages: " + messages() +
+                ", reallocations: " + reallocations() + ')';
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec;
+
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import io.netty5.handler.codec.ByteToMessageDecoder;
+import io.netty5.handler.codec.DecoderException;
+import io.netty5.util.Resource;
+import io.netty5.util.internal.logging.InternalLogger;
+import io.netty5.util.internal.logging.InternalLoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs the expensive part of decoding, like deserializing an object, on an {@link Executor} instead of the event
+ * loop, so that it does not hold up the other channels of the event loop. Any {@link Executor} can be used, for
+ * example one which starts a virtual thread per task.
+ * <p>
+ * The tasks of a channel run one after another, and the decoded messages are passed on from the event loop in the
+ * order in which the tasks were submitted. While more than {@code maxPendingTasks} tasks are waiting, reading from
+ * the channel is suspended by turning off {@link ChannelOption#AUTO_READ}, until half of them have been started.
+ * While it is {@linkplain #isReadingSuspended() suspended}, a {@link ByteToMessageDecoder} must not let its super
+ * class request more bytes from {@code channelReadComplete}.
+ * <p>
+ * A decoder {@linkplain #close() closes} its queue from {@code channelInactive}, so that nothing is passed on after
+ * it: the pending tasks are discarded, and the messages of a task which is still running are dropped. The pipeline
+ * is torn down right after {@code channelInactive} anyway. Enable {@link ChannelOption#ALLOW_HALF_CLOSURE} to keep
+ * receiving the messages which were sent before the other side shut down its output.
+ * <p>
+ * An instance belongs to a single channel and must only be used from its event loop.
+ */
+public final class OrderedDecodingQueue {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(OrderedDecodingQueue.class);
+
+    private final ChannelHandlerContext ctx;
+    private final Executor executor;
+    private final int maxPendingTasks;
+    private final boolean closeOnFailure;
+    private final ArrayDeque<Task> pendingTasks = new ArrayDeque<>();
+    private boolean running;
+    private boolean readingSuspended;
+    private boolean closed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param ctx             the {@link ChannelHandlerContext} to pass the decoded messages on to
+     * @param executor        the {@link Executor} to run the tasks on
+     * @param maxPendingTasks the number of tasks which may wait to be started before reading from the channel is
+     *                        suspended
+     */
+    public OrderedDecodingQueue(ChannelHandlerContext ctx, Executor executor, int maxPendingTasks) {
+        this(ctx, executor, maxPendingTasks, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param ctx             the {@link ChannelHandlerContext} to pass the decoded messages on to
+     * @param executor        the {@link Executor} to run the tasks on
+     * @param maxPendingTasks the number of tasks which may wait to be started before reading from the channel is
+     *                        suspended
+     * @param closeOnFailure  {@code true} to close the channel once the exception of a failed task was passed on and
+     *                        discard the tasks after it, for decoders whose state depends on every message being
+     *                        decoded
+     */
+    public OrderedDecodingQueue(ChannelHandlerContext ctx, Executor executor, int maxPendingTasks,
+                                boolean closeOnFailure) {
+        this.ctx = requireNonNull(ctx, "ctx");
+        this.executor = requireNonNull(executor, "executor");
+        this.maxPendingTasks = checkPositive(maxPendingTasks, "maxPendingTasks");
+        this.closeOnFailure = closeOnFailure;
+    }
+
+    /**
+     * Submits a task which decodes a message, which is passed on once all previously submitted tasks were done.
+     * If the task fails, its exception is passed on instead. If it returns {@code null}, nothing is passed on.
+     *
+     * @param task      the task which decodes the message
+     * @param onDiscard closed if the task is discarded without running, because this queue was closed
+     */
+    public void submit(Callable<?> task, AutoCloseable onDiscard) {
+        if (closed) {
+            discard(onDiscard);
+            return;
+        }
+        pendingTasks.add(new Task(task, onDiscard));
+        if (!running) {
+            runNext();
+        } else if (pendingTasks.size() > maxPendingTasks && !readingSuspended) {
+            readingSuspended = true;
+            ctx.channel().setOption(ChannelOption.AUTO_READ, false);
+        }
+    }
+
+    /**
+     * Returns {@code true} if reading from the channel is suspended because too many tasks are pending.
+     */
+    public boolean isReadingSuspended() {
+        return readingSuspended;
+    }
+
+    /**
+     * Returns the number of tasks which wait to be started.
+     */
+    public int pendingTasks() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * Discards all tasks which were not started yet and resumes reading if it was suspended. Messages decoded by a
+     * task which is still running are dropped.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Task task;
+        while ((task = pendingTasks.poll()) != null) {
+            discard(task.onDiscard);
+        }
+        resumeReading();
+    }
+
+    private void runNext() {
+        Task task = pendingTasks.poll();
+        running = task != null;
+        if (task == null) {
+            return;
+        }
+        if (pendingTasks.size() <= maxPendingTasks >>> 1) {
+            resumeReading();
+        }
+        try {
+            executor.execute(() -> {
+                Object decoded = null;
+                Throwable cause = null;
+                try {
+                    decoded = task.task.call();
+                } catch (Throwable t) {
+                    cause = t;
+                }
+                Object result = decoded;
+                Throwable error = cause;
+                try {
+                    ctx.executor().execute(() -> done(result, error));
+                } catch (Throwable rejected) {
+                    // The event loop is shut down, so nothing else touches this queue anymore.
+                    Resource.dispose(result);
+                    running = false;
+                    close();
+                }
+            });
+        } catch (Throwable cause) {
+            // Nothing can be decoded anymore if the executor rejects tasks.
+            discard(task.onDiscard);
+            running = false;
+            close();
+            ctx.fireChannelExceptionCaught(new DecoderException(cause));
+        }
+    }
+
+    private void done(Object decoded, Throwable cause) {
+        if (closed) {
+            running = false;
+            Resource.dispose(decoded);
+            return;
+        }
+        if (cause == null) {
+            if (decoded != null) {
+                ctx.fireChannelRead(decoded);
+            }
+        } else {
+            ctx.fireChannelExceptionCaught(cause instanceof DecoderException ? cause : new DecoderException(cause));
+            if (closeOnFailure) {
+                running = false;
+                close();
+                ctx.close();
+                return;
+            }
+        }
+        runNext();
+    }
+
+    private void resumeReading() {
+        if (readingSuspended) {
+            readingSuspended = false;
+            ctx.channel().setOption(ChannelOption.AUTO_READ, true);
+        }
+    }
+
+    private static void discard(AutoCloseable onDiscard) {
+        try {
+            onDiscard.close();
+        } catch (Exception e) {
+            logger.warn("Failed to discard {}", onDiscard, e);
+        }
+    }
+
+    private static final class Task {
+        final Callable<?> task;
+        final AutoCloseable onDiscard;
+
+        Task(Callable<?> task, AutoCloseable onDiscard) {
+            this.task = task;
+            this.onDiscard = onDiscard;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.internal;
+
+import io.netty5.buffer.Buffer;
+
+/**
+ * Writes the output of stream based encoders into a {@link Buffer}.
+ */
+public final class BufferUtil {
+
+    private BufferUtil() {
+    }
+
+    /**
+     * Makes room for {@code length} more bytes, at least doubling the capacity whenever the {@link Buffer} needs to
+     * grow so that large messages are not reallocated for every chunk that is written.
+     *
+     * @return {@code false} if this would exceed the implicit capacity limit of the {@link Buffer}, in which case it
+     *         is left to the {@link Buffer} to report that it can not grow any further once the bytes are written
+     */
+    public static boolean ensureWritable(Buffer buffer, int length) {
+        int missing = length - buffer.writableBytes();
+        if (missing <= 0) {
+            return true;
+        }
+        int capacity = buffer.capacity();
+        int headroom = buffer.implicitCapacityLimit() - capacity - missing;
+        if (headroom < 0) {
+            return false;
+        }
+        buffer.ensureWritable(length, Math.max(missing, Math.min(capacity, headroom)), false);
+        return true;
+    }
+
+    /**
+     * Copies the bytes into the writable components of the {@link Buffer}, growing it with
+     * {@link #ensureWritable(Buffer, int)} first. This is much faster than
+     * {@link Buffer#writeBytes(byte[], int, int)}, which transfers a single byte at a time.
+     */
+    public static void writeBytes(Buffer buffer, byte[] bytes, int srcIndex, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (!ensureWritable(buffer, length)) {
+            buffer.writeBytes(bytes, srcIndex, length);
+            return;
+        }
+        try (var iterator = buffer.forEachComponent()) {
+            int remaining = length;
+            for (var component = iterator.firstWritable(); remaining > 0; component = component.nextWritable()) {
+                int chunk = Math.min(component.writableBytes(), remaining);
+                if (component.hasWritableArray()) {
+                    System.arraycopy(bytes, srcIndex, component.writableArray(), component.writableArrayOffset(),
+                            chunk);
+                } else {
+                    component.writableBuffer().put(bytes, srcIndex, chunk);
+                }
+                srcIndex += chunk;
+                remaining -= chunk;
+            }
+        }
+        // The bytes were copied into the memory of the components, so move the writer offset past them.
+        buffer.skipWritableBytes(length);
+    }
+}
@@ -38,6 +38,12 @@ import static io.netty5.util.internal.ObjectUtil.checkPositive;
  * This class does not do any real parsing or validation. A sequence of bytes is considered a JSON object/array
  * if it contains a matching number of opening and closing braces/brackets. It's up to a subsequent
  * {@link ChannelHandler} to parse the JSON text into a more usable form i.e. a POJO.
+ * <p>
+ * While inside a JSON object/array, the input is scanned eight bytes at a time for the few characters which may
+ * change the state of the decoder (braces, brackets, double quotes, backslashes within strings and, when streaming
+ * array elements, commas). All other bytes are skipped without being inspected individually. Escape sequences are
+ * tracked while scanning forward, so every byte is looked at no more than once, even if the input is split over
+ * many reads.
  */
 public class JsonObjectDecoder extends ByteToMessageDecoder {
 
@@ -45,6 +51,16 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
     private static final int ST_INIT = 0;
     private static final int ST_DECODING_NORMAL = 1;
     private static final int ST_DECODING_ARRAY_STREAM = 2;
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LOWER_CASE_BIT = 0x2020202020202020L;
+    // '[' and ']' are turned into '{' and '}' by setting the lower case bit, so two patterns match all four.
+    private static final long OPEN_PATTERN = compilePattern((byte) '{');
+    private static final long CLOSE_PATTERN = compilePattern((byte) '}');
+    private static final long QUOTE_PATTERN = compilePattern((byte) '"');
+    private static final long BACKSLASH_PATTERN = compilePattern((byte) '\\');
+    private static final long COMMA_PATTERN = compilePattern((byte) ',');
+
     private final int maxObjectLength;
     private final boolean streamArrayElements;
     private int openBraces;
@@ -52,6 +68,7 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
     private int lastReaderOffset;
     private int state;
     private boolean insideString;
+    private boolean escaped; // previous byte was a backslash inside a string
 
     public JsonObjectDecoder() {
         // 1 MB
@@ -103,9 +120,15 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
         }
 
         for (/* use current idx */; idx < wrtOffset; idx++) {
+            if (state == ST_DECODING_NORMAL || state == ST_DECODING_ARRAY_STREAM) {
+                idx = nextSignificantByte(in, idx, wrtOffset);
+                if (idx == wrtOffset) {
+                    break;
+                }
+            }
             byte c = in.getByte(idx);
             if (state == ST_DECODING_NORMAL) {
-                decodeByte(c, in, idx);
+                decodeByte(c);
 
                 // All opening braces/brackets have been closed. That's enough to conclude
                 // that the JSON object/array is complete.
@@ -133,7 +156,7 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
                     reset();
                 }
             } else if (state == ST_DECODING_ARRAY_STREAM) {
-                decodeByte(c, in, idx);
+                decodeByte(c);
 
                 if (!insideString && (openBraces == 1 && c == ',' || openBraces == 0 && c == ']')) {
                     // skip leading spaces. No range check is needed and the loop will terminate
@@ -204,33 +227,87 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
         return buffer.readSplit(length);
     }
 
-    private void decodeByte(byte c, Buffer in, int idx) {
-        if ((c == '{' || c == '[') && !insideString) {
+    /**
+     * Returns the index of the first byte at or after {@code idx} which may change the decoding state, or
+     * {@code wrtOffset} if there is none. Whole words are inspected as long as at least eight bytes are left,
+     * the remaining bytes are left to the byte-wise loop in {@link #decode(ChannelHandlerContext, Buffer)}.
+     */
+    private int nextSignificantByte(Buffer in, int idx, int wrtOffset) {
+        if (escaped) {
+            // The escaped byte must be consumed by decodeByte.
+            return idx;
+        }
+        final int lastWordIdx = wrtOffset - Long.BYTES;
+        if (insideString) {
+            // Only a double quote may end a string, and only a backslash may escape it.
+            for (; idx <= lastWordIdx; idx += Long.BYTES) {
+                long word = in.getLong(idx);
+                long found = match(word, QUOTE_PATTERN) | match(word, BACKSLASH_PATTERN);
+                if (found != 0) {
+                    return idx + firstMatch(found);
+                }
+            }
+        } else {
+            final boolean matchCommas = state == ST_DECODING_ARRAY_STREAM;
+            for (; idx <= lastWordIdx; idx += Long.BYTES) {
+                long word = in.getLong(idx);
+                long lowerCaseWord = word | LOWER_CASE_BIT;
+                long found = match(lowerCaseWord, OPEN_PATTERN) | match(lowerCaseWord, CLOSE_PATTERN)
+                        | match(word, QUOTE_PATTERN);
+                if (matchCommas) {
+                    found |= match(word, COMMA_PATTERN);
+                }
+                if (found != 0) {
+                    return idx + firstMatch(found);
+                }
+            }
+        }
+        return idx;
+    }
+
+    private static long compilePattern(byte b) {
+        return (b & 0xFFL) * 0x101010101010101L;
+    }
+
+    /**
+     * Returns a word which has the highest bit set in every byte of {@code word} that is equal to the byte of
+     * {@code pattern}, and all other bits cleared. Unlike the common {@code (x - 0x01..) & ~x & 0x80..} trick,
+     * this never produces false positives, so it is safe to use with the big endian words returned by
+     * {@link Buffer#getLong(int)}.
+     */
+    private static long match(long word, long pattern) {
+        long input = word ^ pattern;
+        long tmp = (input & LOW_BITS) + LOW_BITS;
+        return ~(tmp | input | LOW_BITS);
+    }
+
+    /**
+     * Returns the index (in reading order) of the first matching byte in a non-zero result of
+     * {@link #match(long, long)}.
+     */
+    private static int firstMatch(long found) {
+        return Long.numberOfLeadingZeros(found) >>> 3;
+    }
+
+    private void decodeByte(byte c) {
+        if (insideString) {
+            if (escaped) {
+                // Whatever follows a backslash is part of an escape sequence.
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                // The double quote isn't escaped, so this is the end of the string.
+                insideString = false;
+            }
+        } else if (c == '{' || c == '[') {
             openBraces++;
-        } else if ((c == '}' || c == ']') && !insideString) {
+        } else if (c == '}' || c == ']') {
             openBraces--;
         } else if (c == '"') {
             // start of a new JSON string. It's necessary to detect strings as they may
             // also contain braces/brackets and that could lead to incorrect results.
-            if (!insideString) {
-                insideString = true;
-            } else {
-                int backslashCount = 0;
-                idx--;
-                while (idx >= 0) {
-                    if (in.getByte(idx) == '\\') {
-                        backslashCount++;
-                        idx--;
-                    } else {
-                        break;
-                    }
-                }
-                // The double quote isn't escaped only if there are even "\"s.
-                if (backslashCount % 2 == 0) {
-                    // Since the double quote isn't escaped then this is the end of a string.
-                    insideString = false;
-                }
-            }
+            insideString = true;
         }
     }
 
@@ -245,6 +322,7 @@ public class JsonObjectDecoder extends ByteToMessageDecoder {
 
     private void reset() {
         insideString = false;
+        escaped = false;
         state = ST_INIT;
         openBraces = 0;
     }
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.buffer.Buffer;
+import org.jboss.marshalling.ByteInput;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link ByteInput} which lets an {@link org.jboss.marshalling.Unmarshaller} on another thread read the bytes of a
+ * frame while they are still being received. The event loop {@linkplain #add(Buffer) adds} the received parts of
+ * the frame and {@linkplain #end() ends} it once all were received. Reads block until enough bytes were added or
+ * the frame ended.
+ * <p>
+ * Every part is closed as soon as it was read, and the number of bytes which were read or discarded is reported
+ * to the given {@link IntConsumer}.
+ */
+final class BlockingByteInput implements ByteInput {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+    private final ArrayDeque<Buffer> parts = new ArrayDeque<>();
+    private final IntConsumer consumed;
+    private boolean ended;
+    private boolean closed;
+    private volatile boolean aborted;
+
+    BlockingByteInput(IntConsumer consumed) {
+        this.consumed = consumed;
+    }
+
+    /**
+     * Adds the next part of the frame, which is closed right away if this input was already closed.
+     *
+     * @return {@code false} if this input was already closed
+     */
+    boolean add(Buffer part) {
+        lock.lock();
+        try {
+            if (!closed) {
+                parts.add(part);
+                readable.signal();
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        part.close();
+        return false;
+    }
+
+    /**
+     * Marks the end of the frame, after which reads do not wait for more bytes anymore.
+     */
+    void end() {
+        lock.lock();
+        try {
+            ended = true;
+            readable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this input because the rest of the frame is discarded, so the failure of the reader is expected.
+     */
+    void abort() {
+        aborted = true;
+        close();
+    }
+
+    /**
+     * Returns {@code true} if the frame was {@linkplain #abort() aborted}.
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    @Override
+    public int read() throws InterruptedIOException {
+        lock.lock();
+        try {
+            Buffer part = awaitReadable();
+            if (part == null) {
+                return -1;
+            }
+            int b = part.readByte() & 0xff;
+            consumed.accept(1);
+            return b;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read(byte[] array) throws InterruptedIOException {
+        return read(array, 0, array.length);
+    }
+
+    @Override
+    public int read(byte[] dst, int dstIndex, int length) throws InterruptedIOException {
+        if (length == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            // Only wait for the first byte and return what is available after that.
+            Buffer part = awaitReadable();
+            if (part == null) {
+                return -1;
+            }
+            int read = 0;
+            do {
+                int toRead = Math.min(part.readableBytes(), length - read);
+                part.readBytes(dst, dstIndex + read, toRead);
+                read += toRead;
+            } while (read < length && (part = readable()) != null);
+            consumed.accept(read);
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            long available = 0;
+            for (Buffer part : parts) {
+                available += part.readableBytes();
+            }
+            return (int) Math.min(available, Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long skip(long bytes) throws InterruptedIOException {
+        lock.lock();
+        try {
+            long skipped = 0;
+            Buffer part;
+            while (skipped < bytes && (part = awaitReadable()) != null) {
+                int toSkip = (int) Math.min(part.readableBytes(), bytes - skipped);
+                part.skipReadableBytes(toSkip);
+                skipped += toSkip;
+            }
+            consumed.accept((int) skipped);
+            return skipped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this input and discards the bytes which were not read, waking up a blocked reader.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            int discarded = 0;
+            Buffer part;
+            while ((part = parts.pollFirst()) != null) {
+                discarded += part.readableBytes();
+                part.close();
+            }
+            readable.signalAll();
+            consumed.accept(discarded);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Buffer readable() {
+        Buffer part;
+        while ((part = parts.peekFirst()) != null) {
+            if (part.readableBytes() > 0) {
+                return part;
+            }
+            parts.pollFirst().close();
+        }
+        return null;
+    }
+
+    private Buffer awaitReadable() throws InterruptedIOException {
+        for (;;) {
+            Buffer part = readable();
+            if (part != null || ended || closed) {
+                return part;
+            }
+            try {
+                readable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+}
@@ -62,6 +62,7 @@ class ChannelBufferByteInput implements ByteInput {
         }
 
         length = Math.min(available, length);
+        // Buffer.readBytes(byte[], ...) copies in bulk from each readable component.
         buffer.readBytes(dst, dstIndex, length);
         return length;
     }
@@ -72,7 +73,7 @@ class ChannelBufferByteInput implements ByteInput {
         if (readable < bytes) {
             bytes = readable;
         }
-        buffer.readerOffset((int) (buffer.readerOffset() + bytes));
+        buffer.skipReadableBytes((int) bytes);
         return bytes;
     }
 
@@ -20,6 +20,9 @@ import org.jboss.marshalling.ByteOutput;
 
 import java.io.IOException;
 
+import static io.netty.contrib.handler.codec.internal.BufferUtil.ensureWritable;
+import static io.netty.contrib.handler.codec.internal.BufferUtil.writeBytes;
+
 /**
  * {@link ByteOutput} implementation which writes the data to a {@link Buffer}
  */
@@ -46,17 +49,18 @@ class ChannelBufferByteOutput implements ByteOutput {
 
     @Override
     public void write(int b) throws IOException {
+        ensureWritable(buffer, 1);
         buffer.writeByte((byte) b);
     }
 
     @Override
     public void write(byte[] bytes) throws IOException {
-        buffer.writeBytes(bytes);
+        write(bytes, 0, bytes.length);
     }
 
     @Override
     public void write(byte[] bytes, int srcIndex, int length) throws IOException {
-        buffer.writeBytes(bytes, srcIndex, length);
+        writeBytes(buffer, bytes, srcIndex, length);
     }
 
     /**
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.buffer.Buffer;
+import org.jboss.marshalling.ByteInput;
+
+import java.util.Deque;
+
+/**
+ * {@link ByteInput} which reads from a queue of {@link Buffer}s, closing each of them as soon as it was read
+ * completely.
+ */
+final class ChunkedByteInput implements ByteInput {
+
+    private final Deque<Buffer> chunks;
+
+    ChunkedByteInput(Deque<Buffer> chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public int read() {
+        Buffer chunk = current();
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk.readByte() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] array) {
+        return read(array, 0, array.length);
+    }
+
+    @Override
+    public int read(byte[] dst, int dstIndex, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int read = 0;
+        Buffer chunk;
+        while (read < length && (chunk = current()) != null) {
+            int toRead = Math.min(chunk.readableBytes(), length - read);
+            chunk.readBytes(dst, dstIndex + read, toRead);
+            read += toRead;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        long available = 0;
+        for (Buffer chunk : chunks) {
+            available += chunk.readableBytes();
+        }
+        return (int) Math.min(available, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long skip(long bytes) {
+        long skipped = 0;
+        Buffer chunk;
+        while (skipped < bytes && (chunk = current()) != null) {
+            int toSkip = (int) Math.min(chunk.readableBytes(), bytes - skipped);
+            chunk.skipReadableBytes(toSkip);
+            skipped += toSkip;
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+        Buffer chunk;
+        while ((chunk = chunks.pollFirst()) != null) {
+            chunk.close();
+        }
+    }
+
+    private Buffer current() {
+        Buffer chunk;
+        while ((chunk = chunks.peekFirst()) != null) {
+            if (chunk.readableBytes() > 0) {
+                return chunk;
+            }
+            chunks.pollFirst().close();
+        }
+        return null;
+    }
+}
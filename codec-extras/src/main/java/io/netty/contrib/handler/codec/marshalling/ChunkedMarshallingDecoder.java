@@ -0,0 +1,226 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty.contrib.handler.codec.OrderedDecodingQueue;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.handler.codec.ByteToMessageDecoder;
+import io.netty5.handler.codec.CorruptedFrameException;
+import io.netty5.handler.codec.TooLongFrameException;
+import org.jboss.marshalling.Unmarshaller;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import static io.netty.contrib.handler.codec.marshalling.ChunkedMarshallingEncoder.ABORT_OBJECT;
+import static io.netty.contrib.handler.codec.marshalling.ChunkedMarshallingEncoder.END_OF_OBJECT;
+import static io.netty.contrib.handler.codec.marshalling.MarshallingUtil.unmarshal;
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoder which MUST be used with {@link ChunkedMarshallingEncoder}.
+ * <p>
+ * The chunks of an object are split off the received bytes without copying them into one contiguous
+ * {@link Buffer}, and every chunk is closed as soon as the {@link Unmarshaller} read it.
+ * <p>
+ * By default the {@link Unmarshaller} runs on the event loop once all chunks of an object were received, so up to
+ * {@code maxObjectSize} bytes are held per object, just like with {@link MarshallingDecoder}. If an
+ * {@link Executor} is given, the {@link Unmarshaller} runs on it instead and reads every chunk as soon as it was
+ * received. Then only the chunks which wait for the {@link Unmarshaller} are held, and reading from the channel is
+ * suspended while more than {@code maxQueuedBytes} bytes are waiting. Nothing is passed on after
+ * {@code channelInactive}, as described by {@link OrderedDecodingQueue}.
+ */
+public class ChunkedMarshallingDecoder extends ByteToMessageDecoder {
+
+    private final UnmarshallerProvider provider;
+    private final int maxObjectSize;
+    private final Executor executor;
+    private final int maxQueuedBytes;
+
+    private ArrayDeque<Buffer> chunks = new ArrayDeque<>();
+    // Only used if an executor was given.
+    private IncrementalUnmarshalling incremental;
+    private int objectSize;
+    private boolean discarding;
+    private int bytesToDiscard;
+
+    /**
+     * Creates a new decoder whose maximum object size is {@code 1048576}
+     * bytes.  If the size of the received object is greater than
+     * {@code 1048576} bytes, a {@link TooLongFrameException} will be
+     * raised.
+     */
+    public ChunkedMarshallingDecoder(UnmarshallerProvider provider) {
+        this(provider, 1048576);
+    }
+
+    /**
+     * Creates a new decoder with the specified maximum object size.
+     *
+     * @param maxObjectSize the maximum byte length of the serialized object.
+     *                      if the length of the received object is greater
+     *                      than this value, {@link TooLongFrameException}
+     *                      will be raised and the rest of the object is discarded.
+     */
+    public ChunkedMarshallingDecoder(UnmarshallerProvider provider, int maxObjectSize) {
+        this.provider = provider;
+        this.maxObjectSize = checkPositive(maxObjectSize, "maxObjectSize");
+        executor = null;
+        maxQueuedBytes = 0;
+    }
+
+    /**
+     * Creates a new decoder which unmarshals on the given {@link Executor} while the chunks of an object are
+     * received.
+     *
+     * @param maxObjectSize  the maximum byte length of the serialized object.
+     *                       if the length of the received object is greater
+     *                       than this value, {@link TooLongFrameException}
+     *                       will be raised and the rest of the object is discarded.
+     * @param executor       the {@link Executor} to run the {@link Unmarshaller} on. Every object occupies a thread
+     *                       of it while it is being received.
+     * @param maxQueuedBytes the number of received bytes which may wait for the {@link Unmarshaller} before reading
+     *                       from the channel is suspended
+     * @throws IllegalArgumentException if {@code provider} is a {@link ContextBoundUnmarshallerProvider}
+     */
+    public ChunkedMarshallingDecoder(UnmarshallerProvider provider, int maxObjectSize, Executor executor,
+                                     int maxQueuedBytes) {
+        if (provider instanceof ContextBoundUnmarshallerProvider) {
+            throw new IllegalArgumentException(
+                    "ContextBoundUnmarshallerProvider can not be used with an executor");
+        }
+        this.provider = provider;
+        this.maxObjectSize = checkPositive(maxObjectSize, "maxObjectSize");
+        this.executor = requireNonNull(executor, "executor");
+        this.maxQueuedBytes = checkPositive(maxQueuedBytes, "maxQueuedBytes");
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, Buffer in) throws Exception {
+        if (bytesToDiscard > 0) {
+            int toDiscard = Math.min(bytesToDiscard, in.readableBytes());
+            in.skipReadableBytes(toDiscard);
+            bytesToDiscard -= toDiscard;
+            return;
+        }
+        if (in.readableBytes() < 4) {
+            return;
+        }
+
+        int length = in.getInt(in.readerOffset());
+        if (length == END_OF_OBJECT) {
+            in.skipReadableBytes(4);
+            if (discarding) {
+                discarding = false;
+            } else if (incremental != null) {
+                if (!incremental.isStarted()) {
+                    incremental.start();
+                }
+                incremental.end();
+                objectSize = 0;
+            } else {
+                ctx.fireChannelRead(unmarshalChunks(ctx));
+            }
+        } else if (length == ABORT_OBJECT) {
+            in.skipReadableBytes(4);
+            discarding = false;
+            discardChunks();
+        } else if (length < 0) {
+            in.skipReadableBytes(4);
+            throw new CorruptedFrameException("negative chunk length: " + length);
+        } else if (discarding) {
+            in.skipReadableBytes(4);
+            bytesToDiscard = length;
+        } else if (length > maxObjectSize - objectSize) {
+            in.skipReadableBytes(4);
+            long tooLongObjectSize = (long) objectSize + length;
+            discarding = true;
+            bytesToDiscard = length;
+            discardChunks();
+            throw new TooLongFrameException(
+                    "Object length exceeds " + maxObjectSize + ": " + tooLongObjectSize + " - discarded");
+        } else if (in.readableBytes() - 4 >= length) {
+            in.skipReadableBytes(4);
+            Buffer chunk = in.readSplit(length);
+            if (incremental != null) {
+                if (!incremental.isStarted()) {
+                    incremental.start();
+                }
+                incremental.add(chunk);
+            } else {
+                chunks.add(chunk);
+            }
+            objectSize += length;
+        }
+    }
+
+    private Object unmarshalChunks(ChannelHandlerContext ctx) throws Exception {
+        ArrayDeque<Buffer> chunks = this.chunks;
+        this.chunks = new ArrayDeque<>();
+        objectSize = 0;
+
+        try (ChunkedByteInput input = new ChunkedByteInput(chunks)) {
+            return unmarshal(provider, ctx, input);
+        }
+    }
+
+    private void discardChunks() {
+        Buffer chunk;
+        while ((chunk = chunks.pollFirst()) != null) {
+            chunk.close();
+        }
+        if (incremental != null && incremental.isStarted()) {
+            incremental.abort();
+        }
+        objectSize = 0;
+    }
+
+    @Override
+    protected void handlerAdded0(ChannelHandlerContext ctx) throws Exception {
+        if (executor != null) {
+            incremental = new IncrementalUnmarshalling(ctx, provider, executor, maxQueuedBytes);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (incremental != null && incremental.isReadingSuspended()) {
+            discardSomeReadBytes();
+            ctx.fireChannelReadComplete();
+        } else {
+            super.channelReadComplete(ctx);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (incremental != null) {
+            incremental.close();
+            objectSize = 0;
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        discardChunks();
+        if (incremental != null) {
+            incremental.close();
+        }
+    }
+}
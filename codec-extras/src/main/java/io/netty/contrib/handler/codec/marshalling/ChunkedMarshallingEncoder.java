@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerAdapter;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.handler.codec.EncoderException;
+import io.netty5.util.Resource;
+import io.netty5.util.concurrent.Future;
+import io.netty5.util.concurrent.Promise;
+import io.netty5.util.concurrent.PromiseCombiner;
+import org.jboss.marshalling.ByteOutput;
+import org.jboss.marshalling.Marshaller;
+
+import static io.netty.contrib.handler.codec.internal.BufferUtil.writeBytes;
+import static io.netty.contrib.handler.codec.marshalling.MarshallingUtil.finishAndRelease;
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+
+/**
+ * Encoder which uses JBoss Marshalling to marshal an Object into a sequence of chunks, so that huge objects do not
+ * need to be marshalled into a single {@link Buffer}.
+ * <p>
+ * Every chunk is prefixed with its length as a 4 byte integer. The marshalled bytes are written in chunks of at most
+ * {@code chunkSize} bytes, followed by a chunk of length {@code 0} which terminates the object. If marshalling fails
+ * after some chunks were already written, a chunk of length {@code -1} tells the other side to discard the object.
+ * <p>
+ * Every full chunk is written and flushed as soon as the {@link Marshaller} has produced it, so it can leave the
+ * process while the rest of the object is still being marshalled. The written future of the object completes once
+ * all of its chunks are written. A chunk starts small and only grows up to {@code chunkSize} bytes as the
+ * {@link Marshaller} produces them, so small objects do not take up a full chunk.
+ * <p>
+ * Note that the whole object is still marshalled at once when it is written, without waiting for the
+ * {@link io.netty5.channel.Channel} to become writable. If the peer reads more slowly than the object is produced,
+ * its chunks queue up in the outbound buffer of the {@link io.netty5.channel.Channel}. This bounds the size of a
+ * single {@link Buffer}, not the memory an object takes up while it is being written. To bound that as well, only
+ * write the next object while {@link io.netty5.channel.Channel#isWritable()} returns {@code true}.
+ * <p>
+ * Use this with {@link ChunkedMarshallingDecoder}.
+ */
+public class ChunkedMarshallingEncoder extends ChannelHandlerAdapter {
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+    static final int END_OF_OBJECT = 0;
+    static final int ABORT_OBJECT = -1;
+    private static final int INITIAL_CHUNK_CAPACITY = 256;
+
+    private final MarshallerProvider provider;
+    private final int chunkSize;
+
+    /**
+     * Creates a new encoder which writes chunks of {@code 8192} bytes.
+     *
+     * @param provider the {@link MarshallerProvider} to use
+     */
+    public ChunkedMarshallingEncoder(MarshallerProvider provider) {
+        this(provider, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param provider  the {@link MarshallerProvider} to use
+     * @param chunkSize the maximum number of marshalled bytes per chunk
+     */
+    public ChunkedMarshallingEncoder(MarshallerProvider provider, int chunkSize) {
+        this.provider = provider;
+        this.chunkSize = checkPositive(chunkSize, "chunkSize");
+    }
+
+    @Override
+    public Future<Void> write(ChannelHandlerContext ctx, Object msg) {
+        PromiseCombiner combiner = new PromiseCombiner(ctx.executor());
+        ChunkedByteOutput output = new ChunkedByteOutput(ctx, combiner);
+        try {
+            Marshaller marshaller = provider.getMarshaller(ctx);
+            Throwable cause = null;
+            try {
+                marshaller.start(output);
+                marshaller.writeObject(msg);
+            } catch (Throwable t) {
+                cause = t;
+                throw t;
+            } finally {
+                // Always finish so that a reused marshaller starts the next message with empty caches.
+                finishAndRelease(provider, ctx, marshaller, cause);
+            }
+            output.end();
+        } catch (Throwable cause) {
+            output.abort();
+            combiner.add(ctx.newFailedFuture(cause instanceof EncoderException ?
+                    cause : new EncoderException(cause)));
+        } finally {
+            Resource.dispose(msg);
+        }
+        Promise<Void> promise = ctx.newPromise();
+        combiner.finish(promise);
+        return promise.asFuture();
+    }
+
+    @Override
+    public boolean isSharable() {
+        return true;
+    }
+
+    /**
+     * {@link ByteOutput} which writes the marshalled bytes downstream in chunks.
+     */
+    private final class ChunkedByteOutput implements ByteOutput {
+        private final ChannelHandlerContext ctx;
+        private final PromiseCombiner combiner;
+        private Buffer chunk;
+        private boolean written;
+
+        ChunkedByteOutput(ChannelHandlerContext ctx, PromiseCombiner combiner) {
+            this.ctx = ctx;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public void write(int b) {
+            chunk(1).writeByte((byte) b);
+            writeChunkIfFull();
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void write(byte[] bytes, int srcIndex, int length) {
+            while (length > 0) {
+                int toWrite = Math.min(length, chunk == null ? chunkSize : chunkSize + 4 - chunk.writerOffset());
+                writeBytes(chunk(toWrite), bytes, srcIndex, toWrite);
+                writeChunkIfFull();
+                srcIndex += toWrite;
+                length -= toWrite;
+            }
+        }
+
+        @Override
+        public void flush() {
+            // Only full chunks are written before the end of the object.
+        }
+
+        @Override
+        public void close() {
+            // Nothing to do
+        }
+
+        /**
+         * Returns the current chunk with room for {@code length} more bytes, which must still fit into it. The chunk
+         * starts small and doubles its capacity as needed, up to a full chunk. It always keeps room for the end of
+         * the object, so that the last chunk does not need to be copied or followed by another buffer.
+         */
+        private Buffer chunk(int length) {
+            Buffer chunk = this.chunk;
+            if (chunk == null) {
+                int capacity = Math.min(Math.max(length, INITIAL_CHUNK_CAPACITY), chunkSize);
+                chunk = ctx.bufferAllocator().allocate(capacity + 8);
+                chunk.writeInt(0);
+                this.chunk = chunk;
+            } else if (chunk.writableBytes() < length + 4) {
+                int capacity = Math.min(Math.max(chunk.capacity() << 1, chunk.writerOffset() + length + 4),
+                        chunkSize + 8);
+                chunk.ensureWritable(capacity - chunk.writerOffset(), 0, false);
+            }
+            return chunk;
+        }
+
+        private void writeChunkIfFull() {
+            if (chunk.writerOffset() - 4 == chunkSize) {
+                chunk.setInt(0, chunkSize);
+                Buffer chunk = this.chunk;
+                this.chunk = null;
+                combiner.add(ctx.write(chunk));
+                ctx.flush();
+                written = true;
+            }
+        }
+
+        /**
+         * Writes the remaining bytes and the end of the object.
+         */
+        void end() {
+            Buffer chunk = this.chunk;
+            this.chunk = null;
+            if (chunk == null) {
+                chunk = ctx.bufferAllocator().allocate(4);
+            } else {
+                chunk.setInt(0, chunk.writerOffset() - 4);
+            }
+            chunk.writeInt(END_OF_OBJECT);
+            combiner.add(ctx.write(chunk));
+        }
+
+        /**
+         * Discards the bytes which were not written yet and tells the other side to discard the others.
+         */
+        void abort() {
+            if (chunk != null) {
+                chunk.close();
+                chunk = null;
+            }
+            if (written) {
+                combiner.add(ctx.write(ctx.bufferAllocator().allocate(4).writeInt(ABORT_OBJECT)));
+            }
+        }
+    }
+}
@@ -28,7 +28,9 @@ import org.jboss.marshalling.Unmarshaller;
  * {@link UnmarshallerProvider} which store a reference to the {@link Unmarshaller} in the
  * {@link Channel} via the {@link Channel#attr(AttributeKey)}
  * method. So the same {@link Unmarshaller} will be used during the life-time of a {@link Channel}
- * for the {@link ChannelHandler}'s {@link ChannelHandlerContext}.
+ * for the {@link ChannelHandler}'s {@link ChannelHandlerContext}. It is kept open between messages and closed
+ * once the {@link Channel} is closed. It can therefore not be used with a {@link MarshallingDecoder} which unmarshals
+ * on an {@link java.util.concurrent.Executor}.
  */
 public class ContextBoundUnmarshallerProvider extends DefaultUnmarshallerProvider {
 
@@ -46,7 +48,20 @@ public class ContextBoundUnmarshallerProvider extends DefaultUnmarshallerProvide
         if (unmarshaller == null) {
             unmarshaller = super.getUnmarshaller(ctx);
             attr.set(unmarshaller);
+            ctx.channel().closeFuture().addListener(unmarshaller, (u, future) -> u.close());
         }
         return unmarshaller;
     }
+
+    @Override
+    public void releaseUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) {
+        // Keep it open for the next message of this channel.
+    }
+
+    @Override
+    public void discardUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) throws Exception {
+        // The next message of this channel gets a new one.
+        ctx.channel().attr(UNMARSHALLER).compareAndSet(unmarshaller, null);
+        unmarshaller.close();
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty.contrib.handler.codec.OrderedDecodingQueue;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import org.jboss.marshalling.Unmarshaller;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.netty.contrib.handler.codec.marshalling.MarshallingUtil.unmarshal;
+
+/**
+ * Runs the {@link Unmarshaller} of a channel on an {@link Executor}, which starts reading an Object as soon as its
+ * first bytes were received instead of waiting for all of them on the event loop. The received bytes are handed over
+ * without copying them, and the decoded Objects are passed on in the order they were received, as described by
+ * {@link OrderedDecodingQueue}.
+ * <p>
+ * If more than {@code maxQueuedBytes} bytes are waiting for the {@link Unmarshaller}, reading from the channel is
+ * suspended by turning off {@link ChannelOption#AUTO_READ} until half of them were read.
+ * <p>
+ * An instance belongs to a single channel and must only be used from its event loop.
+ */
+final class IncrementalUnmarshalling {
+
+    private final ChannelHandlerContext ctx;
+    private final UnmarshallerProvider provider;
+    private final int maxQueuedBytes;
+    private final OrderedDecodingQueue decodingQueue;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean resumeScheduled = new AtomicBoolean();
+    private BlockingByteInput current;
+    private volatile boolean readingSuspended;
+
+    IncrementalUnmarshalling(ChannelHandlerContext ctx, UnmarshallerProvider provider, Executor executor,
+                             int maxQueuedBytes) {
+        this.ctx = ctx;
+        this.provider = provider;
+        this.maxQueuedBytes = maxQueuedBytes;
+        // Reading is suspended depending on the queued bytes rather than the number of Objects.
+        decodingQueue = new OrderedDecodingQueue(ctx, executor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Starts unmarshalling the next Object, whose bytes are {@linkplain #add(Buffer) added} until it
+     * {@linkplain #end() ends}.
+     */
+    void start() {
+        BlockingByteInput input = new BlockingByteInput(this::consumed);
+        current = input;
+        decodingQueue.submit(() -> {
+            try {
+                return unmarshal(provider, ctx, input);
+            } catch (Exception e) {
+                if (input.isAborted()) {
+                    return null;
+                }
+                throw e;
+            } finally {
+                input.close();
+            }
+        }, input);
+    }
+
+    /**
+     * Returns {@code true} if an Object was started and did not end yet.
+     */
+    boolean isStarted() {
+        return current != null;
+    }
+
+    /**
+     * Adds the next bytes of the current Object.
+     */
+    void add(Buffer bytes) {
+        int length = bytes.readableBytes();
+        queuedBytes.addAndGet(length);
+        if (!current.add(bytes)) {
+            queuedBytes.addAndGet(-length);
+        }
+        if (queuedBytes.get() > maxQueuedBytes && !readingSuspended) {
+            suspendReading();
+        }
+    }
+
+    /**
+     * Ends the current Object, which is passed on once it was read.
+     */
+    void end() {
+        current.end();
+        current = null;
+    }
+
+    /**
+     * Discards the rest of the current Object, which is not passed on.
+     */
+    void abort() {
+        current.abort();
+        current = null;
+    }
+
+    /**
+     * Returns {@code true} if reading from the channel is suspended until the {@link Unmarshaller} caught up, in
+     * which case the same applies as for {@link OrderedDecodingQueue#isReadingSuspended()}.
+     */
+    boolean isReadingSuspended() {
+        return readingSuspended;
+    }
+
+    /**
+     * Discards the current Object and all which were not read yet, and resumes reading if it was suspended.
+     */
+    void close() {
+        if (current != null) {
+            // Closing it wakes up the Unmarshaller, which fails.
+            current.close();
+            current = null;
+        }
+        decodingQueue.close();
+        if (readingSuspended) {
+            readingSuspended = false;
+            ctx.channel().setOption(ChannelOption.AUTO_READ, true);
+        }
+    }
+
+    /**
+     * Called from the {@link Unmarshaller}'s thread once bytes were read or discarded.
+     */
+    private void consumed(int bytes) {
+        if (queuedBytes.addAndGet(-bytes) <= maxQueuedBytes >>> 1 && readingSuspended &&
+                resumeScheduled.compareAndSet(false, true)) {
+            ctx.executor().execute(this::resumeReading);
+        }
+    }
+
+    private void suspendReading() {
+        readingSuspended = true;
+        ctx.channel().setOption(ChannelOption.AUTO_READ, false);
+        // The Unmarshaller may have caught up before it could see that reading was suspended.
+        if (queuedBytes.get() <= maxQueuedBytes >>> 1) {
+            resumeReading();
+        }
+    }
+
+    private void resumeReading() {
+        resumeScheduled.set(false);
+        if (readingSuspended && queuedBytes.get() <= maxQueuedBytes >>> 1) {
+            readingSuspended = false;
+            if (!ctx.isRemoved()) {
+                ctx.channel().setOption(ChannelOption.AUTO_READ, true);
+            }
+        }
+    }
+}
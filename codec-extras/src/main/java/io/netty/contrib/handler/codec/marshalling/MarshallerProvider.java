@@ -27,4 +27,24 @@ public interface MarshallerProvider {
      * Get a {@link Marshaller} for the given {@link ChannelHandlerContext}
      */
     Marshaller getMarshaller(ChannelHandlerContext ctx) throws Exception;
+
+    /**
+     * Release a {@link Marshaller} returned by {@link #getMarshaller(ChannelHandlerContext)} once a single message
+     * was written with it. The caller already called {@link Marshaller#finish()}, which also cleared its class and
+     * instance caches, so a {@link Marshaller} which is reused for the next message just needs to stay open.
+     * The default implementation closes it, which is what a provider creating a new {@link Marshaller} on every
+     * call needs.
+     */
+    default void releaseMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) throws Exception {
+        marshaller.close();
+    }
+
+    /**
+     * Discard a {@link Marshaller} returned by {@link #getMarshaller(ChannelHandlerContext)} instead of releasing it,
+     * because its {@link Marshaller#finish()} failed. Its state is unknown, so it must not be handed out again.
+     * The default implementation closes it.
+     */
+    default void discardMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) throws Exception {
+        marshaller.close();
+    }
 }
@@ -15,24 +15,46 @@
  */
 package io.netty.contrib.handler.codec.marshalling;
 
+import io.netty.contrib.handler.codec.OrderedDecodingQueue;
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import io.netty5.handler.codec.CorruptedFrameException;
 import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty5.handler.codec.TooLongFrameException;
-import org.jboss.marshalling.ByteInput;
 import org.jboss.marshalling.Unmarshaller;
 
 import java.io.StreamCorruptedException;
+import java.util.concurrent.Executor;
+
+import static io.netty.contrib.handler.codec.marshalling.MarshallingUtil.unmarshal;
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Decoder which MUST be used with {@link MarshallingEncoder}.
  * <p>
  * A {@link LengthFieldBasedFrameDecoder} which use an {@link Unmarshaller} to read the Object out
  * of the {@link Buffer}.
+ * <p>
+ * If an {@link Executor} is given, the {@link Unmarshaller} runs on it and starts reading an Object as soon as the
+ * first bytes of its frame were received, instead of waiting for the whole frame on the event loop. The received
+ * bytes are handed over without copying them, and the decoded Objects are passed on in the order they were
+ * received. If more than {@code maxQueuedBytes} bytes are waiting for the {@link Unmarshaller}, reading from the
+ * channel is suspended by turning off {@link ChannelOption#AUTO_READ} until half of them were read. Nothing is passed
+ * on after {@code channelInactive}, as described by {@link OrderedDecodingQueue}.
  */
 public class MarshallingDecoder extends LengthFieldBasedFrameDecoder {
 
     private final UnmarshallerProvider provider;
+    private final int maxObjectSize;
+    private final Executor executor;
+    private final int maxQueuedBytes;
+
+    // State of the incremental decoding, which is only used if an executor was given.
+    private IncrementalUnmarshalling incremental;
+    private int remainingFrameBytes;
+    private boolean discardingFrame;
 
     /**
      * Creates a new decoder whose maximum object size is {@code 1048576}
@@ -55,24 +77,120 @@ public class MarshallingDecoder extends LengthFieldBasedFrameDecoder {
     public MarshallingDecoder(UnmarshallerProvider provider, int maxObjectSize) {
         super(maxObjectSize, 0, 4, 0, 4);
         this.provider = provider;
+        this.maxObjectSize = maxObjectSize;
+        executor = null;
+        maxQueuedBytes = 0;
+    }
+
+    /**
+     * Creates a new decoder which unmarshals on the given {@link Executor} while the bytes of an Object are
+     * received.
+     *
+     * @param maxObjectSize  the maximum byte length of the serialized object.
+     *                       if the length of the received object is greater
+     *                       than this value, {@link TooLongFrameException}
+     *                       will be raised.
+     * @param executor       the {@link Executor} to run the {@link Unmarshaller} on. Every frame occupies a thread
+     *                       of it while it is being received, which makes an {@link Executor} that starts a
+     *                       virtual thread per task a good fit.
+     * @param maxQueuedBytes the number of received bytes which may wait for the {@link Unmarshaller} before reading
+     *                       from the channel is suspended
+     * @throws IllegalArgumentException if {@code provider} is a {@link ContextBoundUnmarshallerProvider}, which
+     *                                  closes its {@link Unmarshaller} once the channel is closed, while it may
+     *                                  still be in use on the {@link Executor}
+     */
+    public MarshallingDecoder(UnmarshallerProvider provider, int maxObjectSize, Executor executor,
+                              int maxQueuedBytes) {
+        super(maxObjectSize, 0, 4, 0, 4);
+        if (provider instanceof ContextBoundUnmarshallerProvider) {
+            throw new IllegalArgumentException(
+                    "ContextBoundUnmarshallerProvider can not be used with an executor");
+        }
+        this.provider = provider;
+        this.maxObjectSize = maxObjectSize;
+        this.executor = requireNonNull(executor, "executor");
+        this.maxQueuedBytes = checkPositive(maxQueuedBytes, "maxQueuedBytes");
     }
 
     @Override
     protected Object decode0(ChannelHandlerContext ctx, Buffer in) throws Exception {
+        if (executor != null) {
+            decodeIncrementally(in);
+            return null;
+        }
         Buffer frame = (Buffer) super.decode0(ctx, in);
         if (frame == null) {
             return null;
         }
 
-        // Call close in a finally block as the ReplayingDecoder will throw an Error if not enough bytes are
-        // readable. This helps to be sure that we do not leak resource
-        try (frame;
-             Unmarshaller unmarshaller = provider.getUnmarshaller(ctx)) {
-            ByteInput input = new ChannelBufferByteInput(frame);
-            unmarshaller.start(input);
-            Object obj = unmarshaller.readObject();
-            unmarshaller.finish();
-            return obj;
+        try (frame) {
+            return unmarshal(provider, ctx, new ChannelBufferByteInput(frame));
+        }
+    }
+
+    private void decodeIncrementally(Buffer in) {
+        if (remainingFrameBytes == 0) {
+            if (in.readableBytes() < 4) {
+                return;
+            }
+            int length = in.readInt();
+            if (length < 0) {
+                throw new CorruptedFrameException("negative pre-adjustment length field: " + length);
+            }
+            remainingFrameBytes = length;
+            if (length > maxObjectSize - 4) {
+                discardingFrame = true;
+                throw new TooLongFrameException(
+                        "Adjusted frame length exceeds " + maxObjectSize + ": " + (length + 4L) + " - discarded");
+            }
+            incremental.start();
+        } else {
+            int length = Math.min(in.readableBytes(), remainingFrameBytes);
+            remainingFrameBytes -= length;
+            if (discardingFrame) {
+                in.skipReadableBytes(length);
+            } else {
+                incremental.add(in.readSplit(length));
+            }
+        }
+        if (remainingFrameBytes == 0) {
+            if (incremental.isStarted()) {
+                incremental.end();
+            }
+            discardingFrame = false;
+        }
+    }
+
+    @Override
+    protected void handlerAdded0(ChannelHandlerContext ctx) throws Exception {
+        if (executor != null) {
+            incremental = new IncrementalUnmarshalling(ctx, provider, executor, maxQueuedBytes);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (incremental != null && incremental.isReadingSuspended()) {
+            discardSomeReadBytes();
+            ctx.fireChannelReadComplete();
+        } else {
+            super.channelReadComplete(ctx);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (incremental != null) {
+            incremental.close();
+            remainingFrameBytes = 0;
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        if (incremental != null) {
+            incremental.close();
         }
     }
 }
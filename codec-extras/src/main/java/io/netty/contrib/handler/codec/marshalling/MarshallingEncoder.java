@@ -15,11 +15,15 @@
  */
 package io.netty.contrib.handler.codec.marshalling;
 
+import io.netty.contrib.handler.codec.EncodedSizePredictor;
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandlerContext;
 import io.netty5.handler.codec.MessageToByteEncoder;
 import org.jboss.marshalling.Marshaller;
 
+import static io.netty.contrib.handler.codec.marshalling.MarshallingUtil.finishAndRelease;
+import static java.util.Objects.requireNonNull;
+
 /**
  * {@link MessageToByteEncoder} implementation which uses JBoss Marshalling to marshal
  * an Object. Be aware that this encoder is not compatible with another client that just use
@@ -35,6 +39,7 @@ public class MarshallingEncoder extends MessageToByteEncoder<Object> {
 
     private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
     private final MarshallerProvider provider;
+    private final EncodedSizePredictor sizePredictor;
 
     /**
      * Creates a new encoder.
@@ -42,26 +47,54 @@ public class MarshallingEncoder extends MessageToByteEncoder<Object> {
      * @param provider the {@link MarshallerProvider} to use
      */
     public MarshallingEncoder(MarshallerProvider provider) {
+        this(provider, new EncodedSizePredictor());
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param provider      the {@link MarshallerProvider} to use
+     * @param sizePredictor the {@link EncodedSizePredictor} which sizes the buffers messages are encoded into
+     */
+    public MarshallingEncoder(MarshallerProvider provider, EncodedSizePredictor sizePredictor) {
         this.provider = provider;
+        this.sizePredictor = requireNonNull(sizePredictor, "sizePredictor");
+    }
+
+    /**
+     * Returns the {@link EncodedSizePredictor} which sizes the buffers messages are encoded into.
+     */
+    public EncodedSizePredictor sizePredictor() {
+        return sizePredictor;
     }
 
     @Override
     protected Buffer allocateBuffer(ChannelHandlerContext ctx, Object o) {
-        return ctx.bufferAllocator().allocate(256);
+        return ctx.bufferAllocator().allocate(sizePredictor.nextSize());
     }
 
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, Buffer out) throws Exception {
         Marshaller marshaller = provider.getMarshaller(ctx);
         int lengthPos = out.writerOffset();
+        int allocated = out.capacity() - lengthPos;
         out.writeBytes(LENGTH_PLACEHOLDER);
         ChannelBufferByteOutput output = new ChannelBufferByteOutput(out);
-        marshaller.start(output);
-        marshaller.writeObject(msg);
-        marshaller.finish();
-        marshaller.close();
+        Throwable cause = null;
+        try {
+            marshaller.start(output);
+            marshaller.writeObject(msg);
+        } catch (Throwable t) {
+            cause = t;
+            throw t;
+        } finally {
+            // Always finish so that a reused marshaller starts the next message with empty caches.
+            finishAndRelease(provider, ctx, marshaller, cause);
+        }
 
-        out.setInt(lengthPos, out.writerOffset() - lengthPos - 4);
+        int length = out.writerOffset() - lengthPos;
+        out.setInt(lengthPos, length - 4);
+        sizePredictor.record(length, allocated);
     }
 
     @Override
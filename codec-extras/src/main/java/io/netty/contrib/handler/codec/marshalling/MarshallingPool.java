@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.util.internal.logging.InternalLogger;
+import io.netty5.util.internal.logging.InternalLoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+import static io.netty5.util.internal.ObjectUtil.checkPositiveOrZero;
+
+/**
+ * A lock-free, bounded pool of idle {@link org.jboss.marshalling.Marshaller}'s or
+ * {@link org.jboss.marshalling.Unmarshaller}'s, shared by {@link PooledMarshallerProvider} and
+ * {@link PooledUnmarshallerProvider}.
+ * <p>
+ * Idle instances are kept in LIFO order, so the ones which were used last are handed out first and the ones which
+ * were not needed for a while collect at the tail. Those are closed once they have been idle for longer than the
+ * maximum idle time, which is checked whenever an instance is taken from or returned to the pool. A maximum idle
+ * time of {@code 0} disables this, so idle instances are only closed by {@link #clear()}.
+ */
+final class MarshallingPool<T extends AutoCloseable> {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(MarshallingPool.class);
+
+    private final ConcurrentLinkedDeque<Entry<T>> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+    private final long maxIdleNanos;
+    private final LongSupplier nanoTime;
+
+    MarshallingPool(int maxSize, long maxIdleNanos) {
+        this(maxSize, maxIdleNanos, System::nanoTime);
+    }
+
+    MarshallingPool(int maxSize, long maxIdleNanos, LongSupplier nanoTime) {
+        this.maxSize = checkPositive(maxSize, "maxSize");
+        this.maxIdleNanos = checkPositiveOrZero(maxIdleNanos, "maxIdleNanos");
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes the most recently returned idle instance out of the pool.
+     *
+     * @return the instance or {@code null} if the pool is empty
+     */
+    T poll() {
+        // Evict first, so that an instance which has been idle for too long is not handed out again.
+        evictIdle(nanoTime.getAsLong());
+        Entry<T> entry = idle.pollFirst();
+        if (entry == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Returns an instance to the pool, or closes it if the pool is full. Also closes the instances that have been
+     * idle for too long.
+     */
+    void offer(T value) {
+        long now = nanoTime.getAsLong();
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            close(value);
+        } else {
+            idle.offerFirst(new Entry<>(value, now));
+        }
+        evictIdle(now);
+    }
+
+    private void evictIdle(long now) {
+        if (maxIdleNanos == 0) {
+            return;
+        }
+        for (;;) {
+            Entry<T> entry = idle.peekLast();
+            if (entry == null || now - entry.releasedNanos < maxIdleNanos) {
+                return;
+            }
+            if (idle.removeLastOccurrence(entry)) {
+                size.decrementAndGet();
+                close(entry.value);
+            }
+        }
+    }
+
+    /**
+     * Closes all idle instances.
+     */
+    void clear() {
+        Entry<T> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            size.decrementAndGet();
+            close(entry.value);
+        }
+    }
+
+    /**
+     * Returns the number of idle instances.
+     */
+    int size() {
+        return size.get();
+    }
+
+    private static void close(AutoCloseable value) {
+        try {
+            value.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close {}", value, e);
+        }
+    }
+
+    private static final class Entry<T> {
+        final T value;
+        final long releasedNanos;
+
+        Entry(T value, long releasedNanos) {
+            this.value = value;
+            this.releasedNanos = releasedNanos;
+        }
+    }
+}
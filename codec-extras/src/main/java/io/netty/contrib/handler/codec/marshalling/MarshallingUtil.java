@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.channel.ChannelHandlerContext;
+import org.jboss.marshalling.ByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Finishes and releases the {@link Marshaller}'s and {@link Unmarshaller}'s after every message, so that they
+ * neither leak nor carry state over to the next message if they are reused. The ones which fail to finish are
+ * discarded instead of released.
+ */
+final class MarshallingUtil {
+
+    private MarshallingUtil() {
+    }
+
+    /**
+     * Finishes the {@link Marshaller} and hands it back to the {@link MarshallerProvider}.
+     *
+     * @param cause the exception which marshalling the message failed with, or {@code null}. If it is not
+     *              {@code null}, a failure to finish or release is added to it as suppressed exception instead of
+     *              replacing it.
+     */
+    static void finishAndRelease(MarshallerProvider provider, ChannelHandlerContext ctx, Marshaller marshaller,
+                                 Throwable cause) throws Exception {
+        try {
+            try {
+                marshaller.finish();
+            } catch (Throwable t) {
+                // Its state is unknown, so it must not be reused.
+                try {
+                    provider.discardMarshaller(ctx, marshaller);
+                } catch (Throwable discardCause) {
+                    t.addSuppressed(discardCause);
+                }
+                throw t;
+            }
+            provider.releaseMarshaller(ctx, marshaller);
+        } catch (Throwable t) {
+            if (cause == null) {
+                throw t;
+            }
+            cause.addSuppressed(t);
+        }
+    }
+
+    /**
+     * Finishes the {@link Unmarshaller} and hands it back to the {@link UnmarshallerProvider}.
+     *
+     * @param cause the exception which unmarshalling the message failed with, or {@code null}. If it is not
+     *              {@code null}, a failure to finish or release is added to it as suppressed exception instead of
+     *              replacing it.
+     */
+    static void finishAndRelease(UnmarshallerProvider provider, ChannelHandlerContext ctx, Unmarshaller unmarshaller,
+                                 Throwable cause) throws Exception {
+        try {
+            try {
+                unmarshaller.finish();
+            } catch (Throwable t) {
+                // Its state is unknown, so it must not be reused.
+                try {
+                    provider.discardUnmarshaller(ctx, unmarshaller);
+                } catch (Throwable discardCause) {
+                    t.addSuppressed(discardCause);
+                }
+                throw t;
+            }
+            provider.releaseUnmarshaller(ctx, unmarshaller);
+        } catch (Throwable t) {
+            if (cause == null) {
+                throw t;
+            }
+            cause.addSuppressed(t);
+        }
+    }
+
+    /**
+     * Reads an Object from the {@link ByteInput} with an {@link Unmarshaller} of the {@link UnmarshallerProvider},
+     * which is {@linkplain #finishAndRelease(UnmarshallerProvider, ChannelHandlerContext, Unmarshaller, Throwable)
+     * finished and released} afterwards, even if reading failed.
+     */
+    static Object unmarshal(UnmarshallerProvider provider, ChannelHandlerContext ctx, ByteInput input)
+            throws Exception {
+        Unmarshaller unmarshaller = provider.getUnmarshaller(ctx);
+        Throwable cause = null;
+        try {
+            unmarshaller.start(input);
+            return unmarshaller.readObject();
+        } catch (Throwable t) {
+            cause = t;
+            throw t;
+        } finally {
+            finishAndRelease(provider, ctx, unmarshaller, cause);
+        }
+    }
+}
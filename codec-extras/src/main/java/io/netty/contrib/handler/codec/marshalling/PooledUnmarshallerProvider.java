@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.channel.ChannelHandlerContext;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.Unmarshaller;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link UnmarshallerProvider} implementation which keeps a bounded pool of idle {@link Unmarshaller}'s.
+ * Unlike the {@link ThreadLocalUnmarshallerProvider} the number of {@link Unmarshaller}'s depends on how many
+ * messages are read concurrently, not on how many threads ever read, which makes it a good fit for virtual threads
+ * and executors outside of the event loop.
+ * <p>
+ * {@link Unmarshaller}'s which are not needed for longer than the maximum idle time are closed the next time
+ * one is taken from or returned to the pool, as are the ones which are returned while the pool is full. A
+ * {@link Unmarshaller} whose {@code finish()} failed is closed instead of being returned to the pool.
+ */
+public class PooledUnmarshallerProvider implements UnmarshallerProvider {
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration config;
+    private final MarshallingPool<Unmarshaller> pool;
+
+    /**
+     * Create a new instance which keeps up to twice the number of available processors idle
+     * {@link Unmarshaller}'s for up to a minute.
+     *
+     * @param factory the {@link MarshallerFactory} to use to create {@link Unmarshaller}'s if needed
+     * @param config  the {@link MarshallingConfiguration} to use
+     */
+    public PooledUnmarshallerProvider(MarshallerFactory factory, MarshallingConfiguration config) {
+        this(factory, config, Runtime.getRuntime().availableProcessors() * 2, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param factory     the {@link MarshallerFactory} to use to create {@link Unmarshaller}'s if needed
+     * @param config      the {@link MarshallingConfiguration} to use
+     * @param maxPoolSize the maximum number of idle {@link Unmarshaller}'s to keep
+     * @param maxIdleTime how long an idle {@link Unmarshaller} is kept, or {@code 0} to keep it until
+     *                    {@link #clear()} is called
+     * @param unit        the unit of {@code maxIdleTime}
+     */
+    public PooledUnmarshallerProvider(MarshallerFactory factory, MarshallingConfiguration config,
+                                      int maxPoolSize, long maxIdleTime, TimeUnit unit) {
+        this.factory = requireNonNull(factory, "factory");
+        this.config = requireNonNull(config, "config");
+        pool = new MarshallingPool<>(maxPoolSize, unit.toNanos(maxIdleTime));
+    }
+
+    @Override
+    public Unmarshaller getUnmarshaller(ChannelHandlerContext ctx) throws Exception {
+        Unmarshaller unmarshaller = pool.poll();
+        if (unmarshaller == null) {
+            unmarshaller = factory.createUnmarshaller(config);
+        }
+        return unmarshaller;
+    }
+
+    @Override
+    public void releaseUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) {
+        pool.offer(unmarshaller);
+    }
+
+    /**
+     * Close all idle {@link Unmarshaller}'s.
+     */
+    public void clear() {
+        pool.clear();
+    }
+}
@@ -25,9 +25,19 @@ import org.jboss.marshalling.MarshallingConfiguration;
  * {@link UnmarshallerProvider} implementation which use a {@link ThreadLocal} to store references
  * to {@link Marshaller} instances. This may give you some performance boost if you need to marshall
  * many small {@link Object}'s and your actual Thread count is not to big
+ * <p>
+ * The {@link Marshaller}'s are kept open between messages and only closed once they are removed from their
+ * {@link Thread}, e.g. when a {@link io.netty5.util.concurrent.FastThreadLocalThread} terminates.
  */
 public class ThreadLocalMarshallerProvider implements MarshallerProvider {
-    private final FastThreadLocal<Marshaller> marshallers = new FastThreadLocal<>();
+    private final FastThreadLocal<Marshaller> marshallers = new FastThreadLocal<>() {
+        @Override
+        protected void onRemoval(Marshaller marshaller) throws Exception {
+            if (marshaller != null) {
+                marshaller.close();
+            }
+        }
+    };
 
     private final MarshallerFactory factory;
     private final MarshallingConfiguration config;
@@ -52,4 +62,15 @@ public class ThreadLocalMarshallerProvider implements MarshallerProvider {
         }
         return marshaller;
     }
+
+    @Override
+    public void releaseMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) {
+        // Keep it open for the next message on this thread.
+    }
+
+    @Override
+    public void discardMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) {
+        // Removing it closes it, and the next message on this thread gets a new one.
+        marshallers.remove();
+    }
 }
@@ -25,9 +25,19 @@ import org.jboss.marshalling.Unmarshaller;
  * {@link io.netty.contrib.handler.codec.marshalling.UnmarshallerProvider} implementation which use a {@link ThreadLocal} to store references
  * to {@link Unmarshaller} instances. This may give you some performance boost if you need to unmarshall
  * many small {@link Object}'s.
+ * <p>
+ * The {@link Unmarshaller}'s are kept open between messages and only closed once they are removed from their
+ * {@link Thread}, e.g. when a {@link io.netty5.util.concurrent.FastThreadLocalThread} terminates.
  */
 public class ThreadLocalUnmarshallerProvider implements UnmarshallerProvider {
-    private final FastThreadLocal<Unmarshaller> unmarshallers = new FastThreadLocal<>();
+    private final FastThreadLocal<Unmarshaller> unmarshallers = new FastThreadLocal<>() {
+        @Override
+        protected void onRemoval(Unmarshaller unmarshaller) throws Exception {
+            if (unmarshaller != null) {
+                unmarshaller.close();
+            }
+        }
+    };
 
     private final MarshallerFactory factory;
     private final MarshallingConfiguration config;
@@ -53,4 +63,15 @@ public class ThreadLocalUnmarshallerProvider implements UnmarshallerProvider {
         return unmarshaller;
     }
 
+    @Override
+    public void releaseUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) {
+        // Keep it open for the next message on this thread.
+    }
+
+    @Override
+    public void discardUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) {
+        // Removing it closes it, and the next message on this thread gets a new one.
+        unmarshallers.remove();
+    }
+
 }
@@ -27,4 +27,24 @@ public interface UnmarshallerProvider {
      * Get the {@link Unmarshaller} for the given {@link ChannelHandlerContext}
      */
     Unmarshaller getUnmarshaller(ChannelHandlerContext ctx) throws Exception;
+
+    /**
+     * Release an {@link Unmarshaller} returned by {@link #getUnmarshaller(ChannelHandlerContext)} once a single
+     * message was read with it. The caller already called {@link Unmarshaller#finish()}, which also cleared its
+     * class and instance caches, so an {@link Unmarshaller} which is reused for the next message just needs to stay
+     * open. The default implementation closes it, which is what a provider creating a new {@link Unmarshaller} on
+     * every call needs.
+     */
+    default void releaseUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) throws Exception {
+        unmarshaller.close();
+    }
+
+    /**
+     * Discard an {@link Unmarshaller} returned by {@link #getUnmarshaller(ChannelHandlerContext)} instead of releasing it,
+     * because its {@link Unmarshaller#finish()} failed. Its state is unknown, so it must not be handed out again.
+     * The default implementation closes it.
+     */
+    default void discardUnmarshaller(ChannelHandlerContext ctx, Unmarshaller unmarshaller) throws Exception {
+        unmarshaller.close();
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.netty.contrib.handler.codec.protobuf;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.ExtensionRegistryLite;
 import com.google.protobuf.Message;
@@ -26,6 +27,12 @@ import io.netty5.handler.codec.ByteToMessageDecoder;
 import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty5.handler.codec.LengthFieldPrepender;
 import io.netty5.handler.codec.MessageToMessageDecoder;
+import io.netty5.util.internal.EmptyArrays;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -99,27 +106,50 @@ public class ProtobufDecoder extends MessageToMessageDecoder<Buffer> {
 
     @Override
     protected void decode(ChannelHandlerContext ctx, Buffer msg) throws Exception {
-        final int length = msg.readableBytes();
-        final byte[] array = new byte[length];
-        final int offset;
-        msg.copyInto(msg.readerOffset(), array, 0, length);
-        offset = 0;
+        // Parse straight out of the buffer memory instead of copying it into a temporary byte[] first.
+        // The components are only valid while the iterator is open, so the message must be fully parsed
+        // before it is closed. Aliasing is never enabled, as msg is released once this method returns.
+        try (var iterator = msg.forEachComponent()) {
+            final CodedInputStream input;
+            var component = iterator.firstReadable();
+            if (component == null) {
+                input = CodedInputStream.newInstance(EmptyArrays.EMPTY_BYTES);
+            } else if (msg.countReadableComponents() == 1) {
+                if (component.hasReadableArray()) {
+                    input = CodedInputStream.newInstance(component.readableArray(),
+                            component.readableArrayOffset(), component.readableBytes());
+                } else {
+                    input = CodedInputStream.newInstance(component.readableBuffer());
+                }
+            } else {
+                List<ByteBuffer> buffers = new ArrayList<>(msg.countReadableComponents());
+                for (; component != null; component = component.nextReadable()) {
+                    buffers.add(component.readableBuffer());
+                }
+                input = CodedInputStream.newInstance(buffers);
+            }
+            ctx.fireChannelRead(decode(input));
+        }
+    }
 
+    private MessageLite decode(CodedInputStream input) throws IOException {
+        final MessageLite message;
         if (extensionRegistry == null) {
             if (HAS_PARSER) {
-                ctx.fireChannelRead(prototype.getParserForType().parseFrom(array, offset, length));
+                message = prototype.getParserForType().parseFrom(input);
             } else {
-                ctx.fireChannelRead(prototype.newBuilderForType().mergeFrom(array, offset, length).build());
+                message = prototype.newBuilderForType().mergeFrom(input).build();
             }
         } else {
             if (HAS_PARSER) {
-                ctx.fireChannelRead(prototype.getParserForType().parseFrom(
-                        array, offset, length, extensionRegistry));
+                message = prototype.getParserForType().parseFrom(input, extensionRegistry);
             } else {
-                ctx.fireChannelRead(prototype.newBuilderForType().mergeFrom(
-                        array, offset, length, extensionRegistry).build());
+                message = prototype.newBuilderForType().mergeFrom(input, extensionRegistry).build();
             }
         }
+        // Same end-of-message check the byte[] based parseFrom variants perform.
+        input.checkLastTagWas(0);
+        return message;
     }
 
     @Override
@@ -23,6 +23,13 @@ import io.netty5.handler.codec.ByteToMessageDecoder;
 import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty5.handler.codec.MessageToMessageDecoder;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Supplier;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -38,7 +45,7 @@ import static java.util.Objects.requireNonNull;
  * pipeline.addLast("frameDecoder",
  *                  new {@link LengthFieldBasedFrameDecoder}(1048576, 0, 4, 0, 4));
  * pipeline.addLast("protobufDecoder",
- *                  new {@link ProtobufDecoderNano}(MyMessage.getDefaultInstance()));
+ *                  new {@link ProtobufDecoderNano}(MyMessage.class));
  *
  * // Encoder
  * pipeline.addLast("frameEncoder", new {@link io.netty5.handler.codec.LengthFieldPrepender}(4));
@@ -56,24 +63,66 @@ import static java.util.Objects.requireNonNull;
  * </pre>
  */
 public class ProtobufDecoderNano extends MessageToMessageDecoder<Buffer> {
-    private final Class<? extends MessageNano> clazz;
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class);
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(MessageNano.class);
+
+    private final Supplier<? extends MessageNano> factory;
 
     /**
-     * Creates a new instance.
+     * Creates a new instance which creates the messages to decode into through the public no-arg constructor of
+     * {@code clazz}.
      */
     public ProtobufDecoderNano(Class<? extends MessageNano> clazz) {
-        this.clazz = requireNonNull(clazz, "You must provide a Class");
+        this(newFactory(requireNonNull(clazz, "You must provide a Class")));
+    }
+
+    /**
+     * Creates a new instance which decodes into the messages created by {@code factory}.
+     *
+     * @param factory which must return a new, empty message on every call, from any thread
+     */
+    public ProtobufDecoderNano(Supplier<? extends MessageNano> factory) {
+        this.factory = requireNonNull(factory, "factory");
+    }
+
+    private static Supplier<MessageNano> newFactory(Class<? extends MessageNano> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException(clazz.getName() + " is abstract");
+        }
+        final MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(clazz, CONSTRUCTOR_TYPE).asType(FACTORY_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(clazz.getName() + " has no public no-arg constructor", e);
+        }
+        return () -> {
+            try {
+                return (MessageNano) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        };
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, Buffer msg) throws Exception {
         final int length = msg.readableBytes();
+        if (msg.countReadableComponents() == 1) {
+            try (var iterator = msg.forEachComponent()) {
+                var component = iterator.firstReadable();
+                if (component.hasReadableArray()) {
+                    ctx.fireChannelRead(MessageNano.mergeFrom(factory.get(),
+                            component.readableArray(), component.readableArrayOffset(), length));
+                    return;
+                }
+            }
+        }
+        // Off-heap or composite, the nano runtime can only parse from a byte[].
         final byte[] array = new byte[length];
-        final int offset;
         msg.copyInto(msg.readerOffset(), array, 0, length);
-        offset = 0;
-        MessageNano prototype = clazz.getConstructor().newInstance();
-        ctx.fireChannelRead(MessageNano.mergeFrom(prototype, array, offset, length));
+        ctx.fireChannelRead(MessageNano.mergeFrom(factory.get(), array, 0, length));
     }
 
     @Override
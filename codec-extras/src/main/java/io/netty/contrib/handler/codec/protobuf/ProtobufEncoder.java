@@ -15,6 +15,7 @@
  */
 package io.netty.contrib.handler.codec.protobuf;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.Message;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.MessageLiteOrBuilder;
@@ -25,6 +26,7 @@ import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty5.handler.codec.LengthFieldPrepender;
 import io.netty5.handler.codec.MessageToMessageEncoder;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -57,13 +59,61 @@ import java.util.List;
  */
 public class ProtobufEncoder extends MessageToMessageEncoder<MessageLiteOrBuilder> {
     @Override
-    protected void encode(ChannelHandlerContext ctx, MessageLiteOrBuilder msg, List<Object> out) {
+    protected void encode(ChannelHandlerContext ctx, MessageLiteOrBuilder msg, List<Object> out) throws Exception {
+        final MessageLite message;
         if (msg instanceof MessageLite) {
-            out.add(ctx.bufferAllocator().copyOf(((MessageLite) msg).toByteArray()));
+            message = (MessageLite) msg;
+        } else if (msg instanceof MessageLite.Builder) {
+            message = ((MessageLite.Builder) msg).build();
+        } else {
             return;
         }
-        if (msg instanceof MessageLite.Builder) {
-            out.add(ctx.bufferAllocator().copyOf(((MessageLite.Builder) msg).build().toByteArray()));
+
+        final int size = message.getSerializedSize();
+        final Buffer buffer = ctx.bufferAllocator().allocate(size);
+        try {
+            writeMessage(message, size, buffer);
+        } catch (Throwable cause) {
+            buffer.close();
+            throw cause;
+        }
+        out.add(buffer);
+    }
+
+    /**
+     * Serializes {@code message} into {@code out} without going through an intermediate {@code byte[]} when
+     * the next {@code size} bytes are backed by a single writable component.
+     *
+     * @param message to be written
+     * @param size    the {@linkplain MessageLite#getSerializedSize() serialized size} of the message
+     * @param out     to be written to, must have at least {@code size} writable bytes
+     */
+    static void writeMessage(MessageLite message, int size, Buffer out) throws IOException {
+        if (size == 0) {
+            return;
+        }
+        boolean written = false;
+        try (var iterator = out.forEachComponent()) {
+            var component = iterator.firstWritable();
+            if (component != null && component.writableBytes() >= size) {
+                final CodedOutputStream output;
+                if (component.hasWritableArray()) {
+                    output = CodedOutputStream.newInstance(
+                            component.writableArray(), component.writableArrayOffset(), size);
+                } else {
+                    output = CodedOutputStream.newInstance(component.writableBuffer());
+                }
+                message.writeTo(output);
+                output.flush();
+                written = true;
+            }
+        }
+        if (written) {
+            // Advance the buffer itself instead of relying on the component to move the offset of a composite.
+            out.skipWritableBytes(size);
+        } else {
+            // The writable region is spread over several components, e.g. a composite buffer.
+            out.writeBytes(message.toByteArray());
         }
     }
 
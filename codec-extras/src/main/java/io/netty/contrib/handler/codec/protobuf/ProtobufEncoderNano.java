@@ -24,6 +24,7 @@ import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty5.handler.codec.LengthFieldPrepender;
 import io.netty5.handler.codec.MessageToMessageEncoder;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -37,7 +38,7 @@ import java.util.List;
  * pipeline.addLast("frameDecoder",
  *                  new {@link LengthFieldBasedFrameDecoder}(1048576, 0, 4, 0, 4));
  * pipeline.addLast("protobufDecoder",
- *                  new {@link ProtobufDecoderNano}(MyMessage.getDefaultInstance()));
+ *                  new {@link ProtobufDecoderNano}(MyMessage.class));
  *
  * // Encoder
  * pipeline.addLast("frameEncoder", new {@link LengthFieldPrepender}(4));
@@ -58,10 +59,43 @@ public class ProtobufEncoderNano extends MessageToMessageEncoder<MessageNano> {
     @Override
     protected void encode(ChannelHandlerContext ctx, MessageNano msg, List<Object> out) throws Exception {
         final int size = msg.getSerializedSize();
-        byte[] array = new byte[size];
-        CodedOutputByteBufferNano cobbn = CodedOutputByteBufferNano.newInstance(array, 0, size);
-        msg.writeTo(cobbn);
-        out.add(ctx.bufferAllocator().copyOf(array));
+        final Buffer buffer = ctx.bufferAllocator().allocate(size);
+        try {
+            writeMessage(msg, size, buffer);
+        } catch (Throwable cause) {
+            buffer.close();
+            throw cause;
+        }
+        out.add(buffer);
+    }
+
+    /**
+     * Serializes {@code message} into {@code out}, directly into its backing array when the next {@code size} bytes
+     * are backed by a single writable on-heap component.
+     *
+     * @param message to be written
+     * @param size    the {@linkplain MessageNano#getCachedSize() serialized size} of the message
+     * @param out     to be written to, must have at least {@code size} writable bytes
+     */
+    static void writeMessage(MessageNano message, int size, Buffer out) throws IOException {
+        if (size == 0) {
+            return;
+        }
+        try (var iterator = out.forEachComponent()) {
+            var component = iterator.firstWritable();
+            if (component != null && component.hasWritableArray() && component.writableBytes() >= size) {
+                CodedOutputByteBufferNano output = CodedOutputByteBufferNano.newInstance(
+                        component.writableArray(), component.writableArrayOffset(), size);
+                message.writeTo(output);
+                output.checkNoSpaceLeft();
+                component.skipWritableBytes(size);
+                return;
+            }
+        }
+        // The nano runtime can only write into a byte[], so off-heap and composite buffers need a copy.
+        final byte[] array = new byte[size];
+        MessageNano.toByteArray(message, array, 0, size);
+        out.writeBytes(array);
     }
 
     @Override
@@ -43,12 +43,38 @@ public class ProtobufVarint32FrameDecoder extends ByteToMessageDecoder {
     // TODO maxFrameLength + safe skip + fail-fast option
     //      (just like LengthFieldBasedFrameDecoder)
 
+    private final boolean drainFrames;
+
+    /**
+     * Creates a new instance which extracts one frame per {@link #decode(ChannelHandlerContext, Buffer)} call.
+     */
+    public ProtobufVarint32FrameDecoder() {
+        this(false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param drainFrames {@code true} to extract all complete frames of the cumulation in a single
+     *                    {@link #decode(ChannelHandlerContext, Buffer)} call, which saves the per-frame overhead of
+     *                    {@link ByteToMessageDecoder} when a single read carries many small frames. The frames are
+     *                    still passed on one by one, followed by a single {@code channelReadComplete}. Draining
+     *                    stops when the decoder is removed from the pipeline or
+     *                    {@linkplain #setSingleDecode(boolean) single decode} is enabled.
+     */
+    public ProtobufVarint32FrameDecoder(boolean drainFrames) {
+        this.drainFrames = drainFrames;
+    }
+
     /**
      * Reads variable length 32bit int from buffer
      *
      * @return decoded int if buffers readerIndex has been forwarded else nonsense value
      */
-    private static int readRawVarint32(Buffer buffer) {
+    static int readRawVarint32(Buffer buffer) {
+        if (buffer.readableBytes() >= Long.BYTES) {
+            return readRawVarint32Word(buffer);
+        }
         if (buffer.readableBytes() == 0) {
             return 0;
         }
@@ -97,22 +123,54 @@ public class ProtobufVarint32FrameDecoder extends ByteToMessageDecoder {
         }
     }
 
-    @Override
-    protected void decode(ChannelHandlerContext ctx, Buffer in) {
-        int readerIndex = in.readerOffset();
-        int preIndex = in.readerOffset();
-        int length = readRawVarint32(in);
-        if (preIndex == in.readerOffset()) {
-            return;
+    /**
+     * Reads variable length 32bit int from buffer, which must have at least {@link Long#BYTES} readable bytes.
+     * All of them are fetched at once, so the reader offset is only moved once the varint is decoded.
+     *
+     * @return decoded int
+     */
+    private static int readRawVarint32Word(Buffer buffer) {
+        int readerIndex = buffer.readerOffset();
+        // Big-endian, so the first byte of the varint is the most significant byte of the word.
+        long word = buffer.getLong(readerIndex);
+        // The varint ends at the first byte without its continuation bit.
+        long ends = ~word & 0x8080808080808080L;
+        int length = (Long.numberOfLeadingZeros(ends) >>> 3) + 1;
+        if (length == 1) {
+            buffer.readerOffset(readerIndex + 1);
+            return (int) (word >>> 56);
         }
-        if (length < 0) {
-            throw new CorruptedFrameException("negative length: " + length);
+        if (length > 5) {
+            throw new CorruptedFrameException("malformed varint.");
         }
+        // Drop the bytes following the varint and gather the 7 bit groups, least significant group first.
+        word &= -1L << (Long.SIZE - Byte.SIZE * length);
+        int result = (int) (word >>> 56 & 0x7F)
+                | (int) (word >>> 41 & 0x7F << 7)
+                | (int) (word >>> 26 & 0x7F << 14)
+                | (int) (word >>> 11 & 0x7F << 21)
+                | (int) (word << 4 & 0x7FL << 28);
+        buffer.readerOffset(readerIndex + length);
+        return result;
+    }
 
-        if (in.readableBytes() < length) {
-            in.readerOffset(readerIndex);
-        } else {
+    @Override
+    protected void decode(ChannelHandlerContext ctx, Buffer in) {
+        do {
+            int readerIndex = in.readerOffset();
+            int length = readRawVarint32(in);
+            if (readerIndex == in.readerOffset()) {
+                return;
+            }
+            if (length < 0) {
+                throw new CorruptedFrameException("negative length: " + length);
+            }
+
+            if (in.readableBytes() < length) {
+                in.readerOffset(readerIndex);
+                return;
+            }
             ctx.fireChannelRead(in.readSplit(length));
-        }
+        } while (drainFrames && !isSingleDecode() && !ctx.isRemoved());
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.nano.CodedOutputByteBufferNano;
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.CompositeBuffer;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.handler.codec.MessageToMessageEncoder;
+import io.netty5.util.Send;
+
+import java.util.List;
+
+import static io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender.computeRawVarint32Size;
+import static io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender.writeRawVarint32;
+
+/**
+ * An encoder that prepends the Google Protocol Buffers
+ * <a href="https://developers.google.com/protocol-buffers/docs/encoding?csw=1#varints">Base
+ * 128 Varints</a> integer length field without copying the message. The wire format is the same as the one of
+ * {@link ProtobufVarint32LengthFieldPrepender}, but only the length field is written into a new {@link Buffer}.
+ * The body is passed on as is, either as a second {@link Buffer} or, by default, together with the length field as
+ * a single {@link CompositeBuffer}. This is worth it for large messages, for which the copy done by
+ * {@link ProtobufVarint32LengthFieldPrepender} dominates:
+ * <pre>{@code
+ * BEFORE ENCODE (300 bytes)       AFTER ENCODE (302 bytes)
+ * +---------------+               +--------+---------------+
+ * | Protobuf Data |-------------->| Length | Protobuf Data |
+ * |  (300 bytes)  |               | 0xAC02 |  (300 bytes)  |
+ * +---------------+               +--------+---------------+
+ * }</pre>
+ *
+ * @see CodedOutputStream
+ * @see CodedOutputByteBufferNano
+ */
+public class ProtobufVarint32LengthFieldCompositePrepender extends MessageToMessageEncoder<Buffer> {
+
+    private final boolean composite;
+
+    /**
+     * Creates a new instance which emits the length field and the body as a single {@link CompositeBuffer}.
+     */
+    public ProtobufVarint32LengthFieldCompositePrepender() {
+        this(true);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param composite {@code true} to emit the length field and the body as a single {@link CompositeBuffer},
+     *                  {@code false} to emit them as two consecutive {@link Buffer}s
+     */
+    public ProtobufVarint32LengthFieldCompositePrepender(boolean composite) {
+        this.composite = composite;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Buffer msg, List<Object> out) {
+        int bodyLen = msg.readableBytes();
+        Buffer header = ctx.bufferAllocator().allocate(computeRawVarint32Size(bodyLen));
+        writeRawVarint32(header, bodyLen);
+        if (composite) {
+            // The bytes in front of the reader offset can't be part of the composite as they would end up
+            // between the length field and the body, so drop them first.
+            msg.split(msg.readerOffset()).close();
+            if (msg.readOnly()) {
+                // All components of a composite buffer must agree on being read-only.
+                header.makeReadOnly();
+            }
+            Send<Buffer> headerSend = header.send();
+            Send<Buffer> bodySend = msg.split().send();
+            try {
+                out.add(ctx.bufferAllocator().compose(List.of(headerSend, bodySend)));
+            } catch (Throwable cause) {
+                // Closing a Send which was already received is a no-op, so this only releases what compose left.
+                headerSend.close();
+                bodySend.close();
+                throw cause;
+            }
+        } else {
+            out.add(header);
+            out.add(msg.split());
+        }
+    }
+
+    @Override
+    public boolean isSharable() {
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.MessageLiteOrBuilder;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelPipeline;
+import io.netty5.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+import static io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender.computeRawVarint32Size;
+import static io.netty.contrib.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender.writeRawVarint32;
+
+/**
+ * Encodes the requested <a href="https://github.com/google/protobuf">Google
+ * Protocol Buffers</a> {@link Message} and {@link MessageLite} into a
+ * {@link Buffer} prefixed with its
+ * <a href="https://developers.google.com/protocol-buffers/docs/encoding?csw=1#varints">Base
+ * 128 Varints</a> length. The output is identical to a {@link ProtobufEncoder} followed by a
+ * {@link ProtobufVarint32LengthFieldPrepender}, but the length field and the message are written into a single
+ * exact-size {@link Buffer}, saving an allocation and a copy per message:
+ * <pre>
+ * {@link ChannelPipeline} pipeline = ...;
+ *
+ * // Decoders
+ * pipeline.addLast("frameDecoder", new {@link ProtobufVarint32FrameDecoder}());
+ * pipeline.addLast("protobufDecoder",
+ *                  new {@link ProtobufDecoder}(MyMessage.getDefaultInstance()));
+ *
+ * // Encoder
+ * pipeline.addLast("protobufEncoder", new {@link ProtobufVarint32LengthFieldEncoder}());
+ * </pre>
+ */
+public class ProtobufVarint32LengthFieldEncoder extends MessageToMessageEncoder<MessageLiteOrBuilder> {
+    @Override
+    protected void encode(ChannelHandlerContext ctx, MessageLiteOrBuilder msg, List<Object> out) throws Exception {
+        final MessageLite message;
+        if (msg instanceof MessageLite) {
+            message = (MessageLite) msg;
+        } else if (msg instanceof MessageLite.Builder) {
+            message = ((MessageLite.Builder) msg).build();
+        } else {
+            return;
+        }
+
+        final int bodyLen = message.getSerializedSize();
+        final int headerLen = computeRawVarint32Size(bodyLen);
+        final Buffer buffer = ctx.bufferAllocator().allocate(headerLen + bodyLen);
+        try {
+            writeRawVarint32(buffer, bodyLen);
+            ProtobufEncoder.writeMessage(message, bodyLen, buffer);
+        } catch (Throwable cause) {
+            buffer.close();
+            throw cause;
+        }
+        out.add(buffer);
+    }
+
+    @Override
+    public boolean isSharable() {
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty5.buffer.Buffer;
+
+import java.io.InputStream;
+
+/**
+ * {@link InputStream} which reads directly from the readable bytes of a {@link Buffer}, copying byte arrays out of
+ * its memory in bulk. Nothing is read past the readable bytes, which end the stream.
+ * <p>
+ * Closing this stream does not close the {@link Buffer}.
+ */
+final class BufferInputStream extends InputStream {
+
+    private final Buffer buffer;
+
+    BufferInputStream(Buffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.readableBytes() > 0 ? buffer.readUnsignedByte() : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int readable = buffer.readableBytes();
+        if (readable == 0) {
+            return -1;
+        }
+        len = Math.min(len, readable);
+        buffer.readBytes(b, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.readableBytes()));
+        buffer.skipReadableBytes(skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.readableBytes();
+    }
+}
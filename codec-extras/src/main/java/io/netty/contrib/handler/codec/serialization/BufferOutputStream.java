@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty5.buffer.Buffer;
+
+import java.io.OutputStream;
+
+import static io.netty.contrib.handler.codec.internal.BufferUtil.ensureWritable;
+import static io.netty.contrib.handler.codec.internal.BufferUtil.writeBytes;
+
+/**
+ * {@link OutputStream} which writes directly into a {@link Buffer}, copying byte arrays into its memory in bulk.
+ * <p>
+ * The {@link Buffer} can be changed between messages, and bytes written while there is none are dropped.
+ */
+final class BufferOutputStream extends OutputStream {
+
+    private Buffer buffer;
+
+    BufferOutputStream() {
+    }
+
+    BufferOutputStream(Buffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Sets the {@link Buffer} to write into, or {@code null} to drop the written bytes.
+     */
+    void buffer(Buffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        Buffer buffer = this.buffer;
+        if (buffer != null) {
+            ensureWritable(buffer, Byte.BYTES);
+            buffer.writeByte((byte) b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Buffer buffer = this.buffer;
+        if (buffer != null) {
+            writeBytes(buffer, b, off, len);
+        }
+    }
+
+    /**
+     * Writes the length field in front of the serialized object.
+     */
+    void writeInt(int v) {
+        Buffer buffer = this.buffer;
+        if (buffer != null) {
+            ensureWritable(buffer, Integer.BYTES);
+            buffer.writeInt(v);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class names a {@link CompactObjectOutputStream} has sent to, or a {@link CompactObjectInputStream} has received
+ * from, the other side of a channel, so that they can refer to a class by its id after its name was sent once.
+ * <p>
+ * Ids are assigned in the order in which the names are sent, and every new name is sent together with its id. The
+ * receiving side only accepts the id it expects next, so a message which it never read completely, for example
+ * because it was too long or failed to deserialize, shows up as a corrupted stream instead of shifting the ids of
+ * all names after it. The names added while writing a message only become permanent once the message was
+ * {@linkplain #commit() committed}, so that a message which could not be sent is not expected by the other side.
+ */
+final class ClassNameDictionary {
+
+    /**
+     * The maximum number of names, which bounds the memory the other side can make a decoder use.
+     */
+    static final int MAX_SIZE = 4096;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int committed;
+
+    /**
+     * Returns the id of the class name, or {@code -1} if it was not added yet.
+     */
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Adds the class name and returns its id, or {@code -1} if the dictionary is full.
+     */
+    int add(String name) {
+        int id = names.size();
+        if (id >= MAX_SIZE) {
+            return -1;
+        }
+        names.add(name);
+        ids.put(name, id);
+        return id;
+    }
+
+    /**
+     * Adds a class name which was received together with its id.
+     *
+     * @throws StreamCorruptedException if the id is not the next one, which means that a message which added a name
+     *                                  was not read, or if the dictionary is full
+     */
+    void addReceived(int id, String name) throws StreamCorruptedException {
+        if (id != names.size()) {
+            throw new StreamCorruptedException("Unexpected class id: " + id + " (expected: " + names.size() + ')');
+        }
+        if (add(name) < 0) {
+            throw new StreamCorruptedException("Too many class names: " + MAX_SIZE);
+        }
+    }
+
+    /**
+     * Returns the class name with the given id.
+     */
+    String nameOf(int id) throws StreamCorruptedException {
+        if (id < 0 || id >= names.size()) {
+            throw new StreamCorruptedException("Unknown class id: " + id);
+        }
+        return names.get(id);
+    }
+
+    /**
+     * Makes the names which were added since the last commit permanent.
+     */
+    void commit() {
+        committed = names.size();
+    }
+
+    /**
+     * Removes the names which were added since the last commit.
+     */
+    void rollback() {
+        while (names.size() > committed) {
+            ids.remove(names.remove(names.size() - 1));
+        }
+    }
+}
@@ -25,10 +25,21 @@ import java.io.StreamCorruptedException;
 class CompactObjectInputStream extends ObjectInputStream {
 
     private final ClassResolver classResolver;
+    private final ClassNameDictionary dictionary;
 
     CompactObjectInputStream(InputStream in, ClassResolver classResolver) throws IOException {
+        this(in, classResolver, null);
+    }
+
+    /**
+     * @param dictionary the {@link ClassNameDictionary} of the channel, or {@code null} if the other side always
+     *                   writes the class names
+     */
+    CompactObjectInputStream(InputStream in, ClassResolver classResolver, ClassNameDictionary dictionary)
+            throws IOException {
         super(in);
         this.classResolver = classResolver;
+        this.dictionary = dictionary;
     }
 
     @Override
@@ -51,13 +62,42 @@ class CompactObjectInputStream extends ObjectInputStream {
             case CompactObjectOutputStream.TYPE_FAT_DESCRIPTOR:
                 return super.readClassDescriptor();
             case CompactObjectOutputStream.TYPE_THIN_DESCRIPTOR:
+                return lookup(readUTF());
+            case CompactObjectOutputStream.TYPE_NEW_CLASS_NAME:
+                if (dictionary == null) {
+                    break;
+                }
+                int id = readVarInt();
                 String className = readUTF();
-                Class<?> clazz = classResolver.resolve(className);
-                return ObjectStreamClass.lookupAny(clazz);
+                dictionary.addReceived(id, className);
+                return lookup(className);
+            case CompactObjectOutputStream.TYPE_CLASS_NAME_ID:
+                if (dictionary == null) {
+                    break;
+                }
+                return lookup(dictionary.nameOf(readVarInt()));
             default:
-                throw new StreamCorruptedException(
-                        "Unexpected class descriptor type: " + type);
+                break;
+        }
+        throw new StreamCorruptedException(
+                "Unexpected class descriptor type: " + type);
+    }
+
+    private ObjectStreamClass lookup(String className) throws ClassNotFoundException {
+        Class<?> clazz = classResolver.resolve(className);
+        return ObjectStreamClass.lookupAny(clazz);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
         }
+        throw new StreamCorruptedException("malformed varint.");
     }
 
     @Override
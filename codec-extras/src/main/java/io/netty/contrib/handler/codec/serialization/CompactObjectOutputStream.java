@@ -24,9 +24,22 @@ class CompactObjectOutputStream extends ObjectOutputStream {
 
     static final int TYPE_FAT_DESCRIPTOR = 0;
     static final int TYPE_THIN_DESCRIPTOR = 1;
+    static final int TYPE_NEW_CLASS_NAME = 2;
+    static final int TYPE_CLASS_NAME_ID = 3;
+
+    private final ClassNameDictionary dictionary;
 
     CompactObjectOutputStream(OutputStream out) throws IOException {
+        this(out, null);
+    }
+
+    /**
+     * @param dictionary the {@link ClassNameDictionary} of the channel, or {@code null} to always write the class
+     *                   names
+     */
+    CompactObjectOutputStream(OutputStream out, ClassNameDictionary dictionary) throws IOException {
         super(out);
+        this.dictionary = dictionary;
     }
 
     @Override
@@ -41,9 +54,32 @@ class CompactObjectOutputStream extends ObjectOutputStream {
                 desc.getSerialVersionUID() == 0) {
             write(TYPE_FAT_DESCRIPTOR);
             super.writeClassDescriptor(desc);
-        } else {
+        } else if (dictionary == null) {
             write(TYPE_THIN_DESCRIPTOR);
             writeUTF(desc.getName());
+        } else {
+            String name = desc.getName();
+            int id = dictionary.idOf(name);
+            if (id >= 0) {
+                write(TYPE_CLASS_NAME_ID);
+                writeVarInt(id);
+            } else if ((id = dictionary.add(name)) >= 0) {
+                // Send the id as well, so that the other side notices if it missed a name.
+                write(TYPE_NEW_CLASS_NAME);
+                writeVarInt(id);
+                writeUTF(name);
+            } else {
+                write(TYPE_THIN_DESCRIPTOR);
+                writeUTF(name);
+            }
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            write(value & 0x7F | 0x80);
+            value >>>= 7;
         }
+        write(value);
     }
 }
@@ -15,7 +15,7 @@
  */
 package io.netty.contrib.handler.codec.serialization;
 
-import io.netty5.buffer.BufferOutputStream;
+import io.netty.contrib.handler.codec.EncodedSizePredictor;
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandlerContext;
 import io.netty5.handler.codec.MessageToByteEncoder;
@@ -26,6 +26,7 @@ import java.io.OutputStream;
 import java.io.Serializable;
 
 import static io.netty5.util.internal.ObjectUtil.checkPositiveOrZero;
+import static java.util.Objects.requireNonNull;
 
 /**
  * An encoder which serializes a Java object into a {@link Buffer}
@@ -36,6 +37,7 @@ import static io.netty5.util.internal.ObjectUtil.checkPositiveOrZero;
  */
 public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable> {
     private final int resetInterval;
+    private final EncodedSizePredictor sizePredictor;
     private int writtenObjects;
 
     /**
@@ -47,7 +49,7 @@ public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable>
 
     @Override
     protected Buffer allocateBuffer(ChannelHandlerContext ctx, Serializable serializable) {
-        return ctx.bufferAllocator().allocate(256);
+        return ctx.bufferAllocator().allocate(sizePredictor.nextSize());
     }
 
     /**
@@ -59,7 +61,28 @@ public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable>
      *                      the long term.
      */
     public CompatibleObjectEncoder(int resetInterval) {
+        this(resetInterval, new EncodedSizePredictor());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param resetInterval the number of objects between {@link ObjectOutputStream#reset()}.
+     *                      {@code 0} will disable resetting the stream, but the remote
+     *                      peer will be at the risk of getting {@link OutOfMemoryError} in
+     *                      the long term.
+     * @param sizePredictor the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into
+     */
+    public CompatibleObjectEncoder(int resetInterval, EncodedSizePredictor sizePredictor) {
         this.resetInterval = checkPositiveOrZero(resetInterval, "resetInterval");
+        this.sizePredictor = requireNonNull(sizePredictor, "sizePredictor");
+    }
+
+    /**
+     * Returns the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into.
+     */
+    public EncodedSizePredictor sizePredictor() {
+        return sizePredictor;
     }
 
     /**
@@ -73,6 +96,8 @@ public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable>
 
     @Override
     protected void encode(ChannelHandlerContext ctx, Serializable msg, Buffer out) throws Exception {
+        int startIdx = out.writerOffset();
+        int allocated = out.capacity() - startIdx;
         try (ObjectOutputStream oos = newObjectOutputStream(new BufferOutputStream(out))) {
             if (resetInterval != 0) {
                 // Resetting will prevent OOM on the receiving side.
@@ -85,5 +110,6 @@ public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable>
             oos.writeObject(msg);
             oos.flush();
         }
+        sizePredictor.record(out.writerOffset() - startIdx, allocated);
     }
 }
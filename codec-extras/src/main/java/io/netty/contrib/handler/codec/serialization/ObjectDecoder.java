@@ -15,14 +15,19 @@
  */
 package io.netty.contrib.handler.codec.serialization;
 
-import io.netty5.buffer.BufferInputStream;
+import io.netty.contrib.handler.codec.OrderedDecodingQueue;
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
 import io.netty5.handler.codec.LengthFieldBasedFrameDecoder;
 
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.StreamCorruptedException;
+import java.util.concurrent.Executor;
+
+import static io.netty5.util.internal.ObjectUtil.checkPositive;
+import static java.util.Objects.requireNonNull;
 
 /**
  * A decoder which deserializes the received {@link Buffer}s into Java
@@ -32,10 +37,24 @@ import java.io.StreamCorruptedException;
  * compatible with the standard {@link ObjectOutputStream}.  Please use
  * {@link ObjectEncoder} or {@link ObjectEncoderOutputStream} to ensure the
  * interoperability with this decoder.
+ * <p>
+ * If an {@link Executor} is given, the received objects are deserialized on it instead of the event loop and passed
+ * on in the order they were received. If more than {@code maxPendingFrames} frames wait to be deserialized, reading
+ * from the channel is suspended by turning off {@link ChannelOption#AUTO_READ}. Nothing is passed on after
+ * {@code channelInactive}, as described by {@link OrderedDecodingQueue}.
+ * <p>
+ * A decoder with a class name dictionary MUST be used with an {@link ObjectEncoder} which uses a class name
+ * dictionary as well. As a frame which was not read completely, for example because it was too long or failed to
+ * deserialize, leaves the dictionary out of sync with the encoder, such a decoder closes the channel once decoding
+ * failed.
  */
 public class ObjectDecoder extends LengthFieldBasedFrameDecoder {
 
     private final ClassResolver classResolver;
+    private final ClassNameDictionary classNameDictionary;
+    private final Executor executor;
+    private final int maxPendingFrames;
+    private OrderedDecodingQueue decodingQueue;
 
     /**
      * Creates a new decoder whose maximum object size is {@code 1048576}
@@ -60,19 +79,127 @@ public class ObjectDecoder extends LengthFieldBasedFrameDecoder {
      *                      of the serialized object
      */
     public ObjectDecoder(int maxObjectSize, ClassResolver classResolver) {
+        this(maxObjectSize, classResolver, false);
+    }
+
+    /**
+     * Creates a new decoder with the specified maximum object size.
+     *
+     * @param maxObjectSize       the maximum byte length of the serialized object.
+     *                            if the length of the received object is greater
+     *                            than this value, {@link StreamCorruptedException}
+     *                            will be raised.
+     * @param classResolver       the {@link ClassResolver} which will load the class
+     *                            of the serialized object
+     * @param classNameDictionary {@code true} if the {@link ObjectEncoder} on the other side sends every class name
+     *                            only once per channel
+     */
+    public ObjectDecoder(int maxObjectSize, ClassResolver classResolver, boolean classNameDictionary) {
+        super(maxObjectSize, 0, 4, 0, 4);
+        this.classResolver = classResolver;
+        this.classNameDictionary = classNameDictionary ? new ClassNameDictionary() : null;
+        executor = null;
+        maxPendingFrames = 0;
+    }
+
+    /**
+     * Creates a new decoder which deserializes on the given {@link Executor}.
+     *
+     * @param maxObjectSize    the maximum byte length of the serialized object.
+     *                         if the length of the received object is greater
+     *                         than this value, {@link StreamCorruptedException}
+     *                         will be raised.
+     * @param classResolver    the {@link ClassResolver} which will load the class
+     *                         of the serialized object
+     * @param executor         the {@link Executor} to deserialize the objects on
+     * @param maxPendingFrames the number of received frames which may wait to be deserialized before reading from
+     *                         the channel is suspended
+     */
+    public ObjectDecoder(int maxObjectSize, ClassResolver classResolver, Executor executor, int maxPendingFrames) {
+        this(maxObjectSize, classResolver, false, executor, maxPendingFrames);
+    }
+
+    /**
+     * Creates a new decoder which deserializes on the given {@link Executor}.
+     *
+     * @param maxObjectSize       the maximum byte length of the serialized object.
+     *                            if the length of the received object is greater
+     *                            than this value, {@link StreamCorruptedException}
+     *                            will be raised.
+     * @param classResolver       the {@link ClassResolver} which will load the class
+     *                            of the serialized object
+     * @param classNameDictionary {@code true} if the {@link ObjectEncoder} on the other side sends every class name
+     *                            only once per channel
+     * @param executor            the {@link Executor} to deserialize the objects on
+     * @param maxPendingFrames    the number of received frames which may wait to be deserialized before reading from
+     *                            the channel is suspended
+     */
+    public ObjectDecoder(int maxObjectSize, ClassResolver classResolver, boolean classNameDictionary,
+                         Executor executor, int maxPendingFrames) {
         super(maxObjectSize, 0, 4, 0, 4);
         this.classResolver = classResolver;
+        this.classNameDictionary = classNameDictionary ? new ClassNameDictionary() : null;
+        this.executor = requireNonNull(executor, "executor");
+        this.maxPendingFrames = checkPositive(maxPendingFrames, "maxPendingFrames");
     }
 
     @Override
     protected Object decode0(ChannelHandlerContext ctx, Buffer in) throws Exception {
-        Buffer frame = (Buffer) super.decode0(ctx, in);
-        if (frame == null) {
-            return null;
+        try {
+            Buffer frame = (Buffer) super.decode0(ctx, in);
+            if (frame == null) {
+                return null;
+            }
+            if (decodingQueue != null) {
+                decodingQueue.submit(() -> deserialize(frame), frame);
+                return null;
+            }
+            return deserialize(frame);
+        } catch (Exception e) {
+            if (classNameDictionary != null) {
+                // The frame may have carried class names which were not added, so the next ones can not be decoded.
+                ctx.close();
+            }
+            throw e;
         }
+    }
 
-        try (ObjectInputStream ois = new CompactObjectInputStream(new BufferInputStream(frame.send()), classResolver)) {
+    private Object deserialize(Buffer frame) throws Exception {
+        try (frame; ObjectInputStream ois = new CompactObjectInputStream(
+                new BufferInputStream(frame), classResolver, classNameDictionary)) {
             return ois.readObject();
         }
     }
+
+    @Override
+    protected void handlerAdded0(ChannelHandlerContext ctx) throws Exception {
+        if (executor != null) {
+            decodingQueue = new OrderedDecodingQueue(ctx, executor, maxPendingFrames, classNameDictionary != null);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (decodingQueue != null && decodingQueue.isReadingSuspended()) {
+            discardSomeReadBytes();
+            ctx.fireChannelReadComplete();
+        } else {
+            super.channelReadComplete(ctx);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (decodingQueue != null) {
+            decodingQueue.close();
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        if (decodingQueue != null) {
+            decodingQueue.close();
+        }
+    }
 }
@@ -15,11 +15,16 @@
  */
 package io.netty.contrib.handler.codec.serialization;
 
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+
 import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamConstants;
 import java.io.StreamCorruptedException;
 
 import static java.util.Objects.requireNonNull;
@@ -27,12 +32,18 @@ import static java.util.Objects.requireNonNull;
 /**
  * An {@link ObjectInput} which is interoperable with {@link ObjectEncoder}
  * and {@link ObjectEncoderOutputStream}.
+ * <p>
+ * Every object is read completely into a scratch buffer before it is deserialized, so that a malformed object can not
+ * read past the end of its frame. The scratch buffer and the {@link ObjectInputStream} reading from it are reused for
+ * the following objects.
  */
 public class ObjectDecoderInputStream extends InputStream implements ObjectInput {
 
     private final DataInputStream in;
     private final int maxObjectSize;
     private final ClassResolver classResolver;
+    private Buffer frame;
+    private ObjectInputStream frameInput;
 
     /**
      * Creates a new {@link ObjectInput}.
@@ -105,7 +116,70 @@ public class ObjectDecoderInputStream extends InputStream implements ObjectInput
                     "data length too big: " + dataLen + " (max: " + maxObjectSize + ')');
         }
 
-        return new CompactObjectInputStream(in, classResolver).readObject();
+        try {
+            Buffer frame = readFrame(dataLen);
+            ObjectInputStream oin = frameInput;
+            if (oin == null) {
+                // Reads the stream header.
+                oin = new CompactObjectInputStream(new BufferInputStream(frame), classResolver);
+            } else {
+                int version = frame.getUnsignedByte(0);
+                if (version != ObjectStreamConstants.STREAM_VERSION) {
+                    frameInput = null;
+                    throw new StreamCorruptedException("Unsupported version: " + version);
+                }
+                // Every object starts with the stream header, as if it was written by a new stream. Read it as a
+                // reset instead, which lets the reused stream forget the objects of the previous frame.
+                frame.setByte(0, ObjectStreamConstants.TC_RESET);
+            }
+            frameInput = null;
+            Object object = oin.readObject();
+            // Only reuse the stream if the object was read completely, as a failure leaves it in an unknown state.
+            frameInput = oin;
+            return object;
+        } finally {
+            // Do not keep the frame of a huge object for the following ones, also if it was truncated or failed to
+            // deserialize.
+            if (this.frame != null && this.frame.capacity() > ObjectEncoderOutputStream.MAX_RETAINED_CAPACITY) {
+                releaseFrame();
+            }
+        }
+    }
+
+    /**
+     * Reads the next {@code dataLen} bytes into the scratch buffer.
+     */
+    private Buffer readFrame(int dataLen) throws IOException {
+        Buffer frame = this.frame;
+        if (frame == null) {
+            frame = BufferAllocator.onHeapUnpooled().allocate(dataLen);
+            this.frame = frame;
+        } else {
+            frame.resetOffsets();
+            frame.ensureWritable(dataLen, frame.capacity(), false);
+        }
+        try (var iterator = frame.forEachComponent()) {
+            var component = iterator.firstWritable();
+            in.readFully(component.writableArray(), component.writableArrayOffset(), dataLen);
+        }
+        frame.skipWritableBytes(dataLen);
+        return frame;
+    }
+
+    /**
+     * Returns the capacity of the scratch buffer which is kept for the next object, or {@code 0} if there is none.
+     */
+    int retainedCapacity() {
+        return frame == null ? 0 : frame.capacity();
+    }
+
+    private void releaseFrame() {
+        if (frame != null) {
+            frame.close();
+            frame = null;
+            // The stream reads from the released buffer.
+            frameInput = null;
+        }
     }
 
     @Override
@@ -115,6 +189,7 @@ public class ObjectDecoderInputStream extends InputStream implements ObjectInput
 
     @Override
     public void close() throws IOException {
+        releaseFrame();
         in.close();
     }
 
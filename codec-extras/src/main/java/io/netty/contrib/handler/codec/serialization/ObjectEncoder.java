@@ -15,15 +15,19 @@
  */
 package io.netty.contrib.handler.codec.serialization;
 
-import io.netty5.buffer.BufferOutputStream;
+import io.netty.contrib.handler.codec.EncodedSizePredictor;
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandlerContext;
 import io.netty5.handler.codec.MessageToByteEncoder;
 
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
 import java.io.Serializable;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * An encoder which serializes a Java object into a {@link Buffer}.
  * <p>
@@ -31,40 +35,150 @@ import java.io.Serializable;
  * compatible with the standard {@link ObjectInputStream}.  Please use
  * {@link ObjectDecoder} or {@link ObjectDecoderInputStream} to ensure the
  * interoperability with this encoder.
+ * <p>
+ * With a class name dictionary, the name of a class is only sent the first time an object of it is written to the
+ * channel, and referred to by a small id afterwards. The {@link ObjectDecoder} on the other side must use a class
+ * name dictionary as well. As the dictionary belongs to a single channel, such an encoder can not be shared.
+ * <p>
+ * An encoder which reuses its output stream keeps a single {@link ObjectOutputStream} per channel, which writes into
+ * the {@link Buffer} of each message and is reset after it, instead of creating a new one for every message. The
+ * encoded bytes are the same either way. Such an encoder can not be shared either.
  */
 public class ObjectEncoder extends MessageToByteEncoder<Serializable> {
-    private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
+    private final EncodedSizePredictor sizePredictor;
+    private final ClassNameDictionary classNameDictionary;
+    private final boolean reuseOutputStream;
+    private BufferOutputStream reusableTarget;
+    private ObjectOutputStream reusableOutput;
+
+    /**
+     * Creates a new encoder.
+     */
+    public ObjectEncoder() {
+        this(new EncodedSizePredictor());
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param sizePredictor the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into
+     */
+    public ObjectEncoder(EncodedSizePredictor sizePredictor) {
+        this(sizePredictor, false);
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param classNameDictionary {@code true} to send every class name only once per channel
+     */
+    public ObjectEncoder(boolean classNameDictionary) {
+        this(new EncodedSizePredictor(), classNameDictionary);
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param sizePredictor       the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into
+     * @param classNameDictionary {@code true} to send every class name only once per channel
+     */
+    public ObjectEncoder(EncodedSizePredictor sizePredictor, boolean classNameDictionary) {
+        this(sizePredictor, classNameDictionary, false);
+    }
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param sizePredictor       the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into
+     * @param classNameDictionary {@code true} to send every class name only once per channel
+     * @param reuseOutputStream   {@code true} to serialize all objects of the channel with the same
+     *                            {@link ObjectOutputStream}
+     */
+    public ObjectEncoder(EncodedSizePredictor sizePredictor, boolean classNameDictionary, boolean reuseOutputStream) {
+        this.sizePredictor = requireNonNull(sizePredictor, "sizePredictor");
+        this.classNameDictionary = classNameDictionary ? new ClassNameDictionary() : null;
+        this.reuseOutputStream = reuseOutputStream;
+    }
+
+    /**
+     * Returns the {@link EncodedSizePredictor} which sizes the buffers objects are serialized into.
+     */
+    public EncodedSizePredictor sizePredictor() {
+        return sizePredictor;
+    }
 
     @Override
     protected Buffer allocateBuffer(ChannelHandlerContext ctx, Serializable msg) {
-        return ctx.bufferAllocator().allocate(256);
+        return ctx.bufferAllocator().allocate(sizePredictor.nextSize());
     }
 
     @Override
     protected void encode(ChannelHandlerContext ctx, Serializable msg, Buffer out) throws Exception {
         int startIdx = out.writerOffset();
+        int allocated = out.capacity() - startIdx;
 
-        BufferOutputStream bout = new BufferOutputStream(out);
-        ObjectOutputStream oout = null;
         try {
-            bout.write(LENGTH_PLACEHOLDER);
-            oout = new CompactObjectOutputStream(bout);
-            oout.writeObject(msg);
-            oout.flush();
-        } finally {
-            if (oout != null) {
-                oout.close();
+            if (reuseOutputStream) {
+                writeReusing(msg, out);
             } else {
-                bout.close();
+                write(msg, out);
+            }
+        } catch (Throwable cause) {
+            if (classNameDictionary != null) {
+                // The message is not sent, so the other side never learns about the names it added.
+                classNameDictionary.rollback();
             }
+            throw cause;
         }
 
         int endIdx = out.writerOffset();
         out.setInt(startIdx, endIdx - startIdx - 4);
+        sizePredictor.record(endIdx - startIdx, allocated);
+        if (classNameDictionary != null) {
+            classNameDictionary.commit();
+        }
+    }
+
+    private void write(Serializable msg, Buffer out) throws IOException {
+        BufferOutputStream bout = new BufferOutputStream(out);
+        // Placeholder for the length.
+        bout.writeInt(0);
+        try (ObjectOutputStream oout = new CompactObjectOutputStream(bout, classNameDictionary)) {
+            oout.writeObject(msg);
+            oout.flush();
+        }
+    }
+
+    private void writeReusing(Serializable msg, Buffer out) throws IOException {
+        ObjectOutputStream oout = reusableOutput;
+        if (oout == null) {
+            reusableTarget = new BufferOutputStream(out);
+            // Placeholder for the length.
+            reusableTarget.writeInt(0);
+            // Writes the stream header.
+            oout = new CompactObjectOutputStream(reusableTarget, classNameDictionary);
+        } else {
+            reusableTarget.buffer(out);
+            // Placeholder for the length.
+            reusableTarget.writeInt(0);
+            // Every message starts with the stream header, as if it was written by a new stream.
+            reusableTarget.write(ObjectStreamConstants.STREAM_VERSION);
+        }
+        reusableOutput = null;
+        oout.writeObject(msg);
+        oout.flush();
+
+        // Forget the objects of this message, so that the next one is written as if by a new stream and this one
+        // can be garbage collected. The reset marker is not part of any message and is dropped.
+        reusableTarget.buffer(null);
+        oout.reset();
+        oout.flush();
+        // Only reuse the stream if the message was written completely, as a failure leaves it in an unknown state.
+        reusableOutput = oout;
     }
 
     @Override
     public boolean isSharable() {
-        return true;
+        return classNameDictionary == null && !reuseOutputStream;
     }
 }
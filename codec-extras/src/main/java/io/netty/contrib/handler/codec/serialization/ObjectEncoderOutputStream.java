@@ -15,8 +15,8 @@
  */
 package io.netty.contrib.handler.codec.serialization;
 
-import io.netty5.buffer.BufferOutputStream;
 import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -24,18 +24,29 @@ import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 
-import static io.netty5.buffer.DefaultBufferAllocators.preferredAllocator;
 import static java.util.Objects.requireNonNull;
 
 /**
  * An {@link ObjectOutput} which is interoperable with {@link ObjectDecoder}
  * and {@link ObjectDecoderInputStream}.
+ * <p>
+ * Objects are serialized into a scratch buffer which is reused for the following objects, and written to the
+ * underlying {@link OutputStream} together with their length in a single bulk write.
  */
 public class ObjectEncoderOutputStream extends OutputStream implements
         ObjectOutput {
 
+    /**
+     * The largest capacity of a scratch buffer which is kept for the next object. A scratch buffer which had to grow
+     * beyond it, like for a single huge object, is dropped so that it does not pin its memory for the lifetime of the
+     * stream. Shared with {@link ObjectDecoderInputStream}.
+     */
+    static final int MAX_RETAINED_CAPACITY = 1048576;
+
     private final DataOutputStream out;
     private final int estimatedLength;
+    private Buffer buffer;
+    private BufferOutputStream bufferOutput;
 
     /**
      * Creates a new {@link ObjectOutput} with the estimated length of 512
@@ -76,16 +87,32 @@ public class ObjectEncoderOutputStream extends OutputStream implements
 
     @Override
     public void writeObject(Object obj) throws IOException {
-        try (Buffer buf = preferredAllocator().allocate(estimatedLength)) {
-            try (ObjectOutputStream oout = new CompactObjectOutputStream(new BufferOutputStream(buf))) {
+        Buffer buf = buffer;
+        if (buf == null) {
+            // A heap buffer, so that its contents can be written out from its array without copying them first.
+            buf = BufferAllocator.onHeapUnpooled().allocate(Math.max(estimatedLength, 4));
+            buffer = buf;
+            bufferOutput = new BufferOutputStream(buf);
+        }
+        buf.resetOffsets();
+
+        try {
+            // Placeholder for the length.
+            bufferOutput.writeInt(0);
+            try (ObjectOutputStream oout = new CompactObjectOutputStream(bufferOutput)) {
                 oout.writeObject(obj);
                 oout.flush();
             }
-
-            int objectSize = buf.readableBytes();
-            writeInt(objectSize);
-            for (int i = 0; i < objectSize; i++) {
-                out.write(buf.getByte(i));
+            buf.setInt(0, buf.readableBytes() - 4);
+            try (var iterator = buf.forEachComponent()) {
+                var component = iterator.firstReadable();
+                out.write(component.readableArray(), component.readableArrayOffset(), component.readableBytes());
+            }
+        } finally {
+            if (buf.capacity() > Math.max(estimatedLength, MAX_RETAINED_CAPACITY)) {
+                buf.close();
+                buffer = null;
+                bufferOutput = null;
             }
         }
     }
@@ -97,6 +124,11 @@ public class ObjectEncoderOutputStream extends OutputStream implements
 
     @Override
     public void close() throws IOException {
+        if (buffer != null) {
+            buffer.close();
+            buffer = null;
+            bufferOutput = null;
+        }
         out.close();
     }
 
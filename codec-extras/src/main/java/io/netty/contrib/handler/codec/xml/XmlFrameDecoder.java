@@ -69,23 +69,46 @@ import static io.netty5.util.internal.ObjectUtil.checkPositive;
  * gets closed at the end of the session, although this class
  * could probably allow for such type of message flow with
  * minor modifications.
+ * <p>
+ * The scanner state is kept between invocations, so every byte of a document that is received over many reads
+ * is only inspected once (apart from the few bytes looked ahead at the end of the received data).
  */
 public class XmlFrameDecoder extends ByteToMessageDecoder {
 
+    private static final byte[] COMMENT_BLOCK_START = { '<', '!', '-', '-' };
+    private static final byte[] CDATA_BLOCK_START = { '<', '!', '[', 'C', 'D', 'A', 'T', 'A', '[' };
+
     private final int maxFrameLength;
+    private final boolean copyFrames;
+    private boolean openingBracketFound;
+    private boolean atLeastOneXmlElementFound;
+    private boolean inCDATASection;
+    private long openBracketsCount;
+    private int length; // index right after the last '>' found, or 0
+    private int leadingWhiteSpaceCount;
+    private int idx; // current scan position
+    private int lastReaderOffset;
 
     public XmlFrameDecoder(int maxFrameLength) {
+        this(maxFrameLength, true);
+    }
+
+    /**
+     * @param maxFrameLength maximum number of bytes an xml document may use. Documents exceeding this length
+     *                       are dropped and a {@link TooLongFrameException} is thrown.
+     * @param copyFrames     if set to true, each frame is copied into a new {@link Buffer}. Otherwise, frames are
+     *                       split off the received bytes with {@link Buffer#readSplit(int)}, which avoids the copy
+     *                       but keeps the memory of the received bytes in use until the frame is closed.
+     */
+    public XmlFrameDecoder(int maxFrameLength, boolean copyFrames) {
         this.maxFrameLength = checkPositive(maxFrameLength, "maxFrameLength");
+        this.copyFrames = copyFrames;
     }
 
     private static void fail(ChannelHandlerContext ctx) {
         ctx.fireChannelExceptionCaught(new CorruptedFrameException("frame contains content before the xml starts"));
     }
 
-    private static Buffer extractFrame(Buffer buffer, int index, int length) {
-        return buffer.copy(index, length);
-    }
-
     /**
      * Asks whether the given byte is a valid
      * start char for an xml element name.
@@ -118,24 +141,47 @@ public class XmlFrameDecoder extends ByteToMessageDecoder {
                 && in.getByte(i + 8) == '[';
     }
 
+    /**
+     * Asks whether the bytes starting at the given index are too few to tell if they start the given
+     * {@code <!} block, but match it as far as they go.
+     */
+    private static boolean isIncompleteBlockStart(final Buffer in, final int i, final byte[] blockStart) {
+        final int available = in.writerOffset() - i;
+        if (available >= blockStart.length) {
+            return false;
+        }
+        for (int j = 2; j < available; j++) {
+            if (in.getByte(i + j) != blockStart[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, Buffer in) {
-        boolean openingBracketFound = false;
-        boolean atLeastOneXmlElementFound = false;
-        boolean inCDATASection = false;
-        long openBracketsCount = 0;
-        int length = 0;
-        int leadingWhiteSpaceCount = 0;
         final int bufferLength = in.writerOffset();
 
         if (bufferLength > maxFrameLength) {
             // bufferLength exceeded maxFrameLength; dropping frame
             in.skipReadableBytes(in.readableBytes());
+            reset(in);
             fail(bufferLength);
             return;
         }
 
-        for (int i = in.readerOffset(); i < bufferLength; i++) {
+        if (lastReaderOffset != in.readerOffset()) {
+            // The cumulation buffer was compacted or replaced since the last call, adjust the saved offsets.
+            final int delta = in.readerOffset() - lastReaderOffset;
+            idx += delta;
+            if (length > 0) {
+                length += delta;
+            }
+        }
+
+        // index of next byte to process.
+        int i = idx;
+        for (/* use current idx */; i < bufferLength; i++) {
             final byte readByte = in.getByte(i);
             if (!openingBracketFound && Character.isWhitespace(readByte)) {
                 // xml has not started and whitespace char found
@@ -144,44 +190,58 @@ public class XmlFrameDecoder extends ByteToMessageDecoder {
                 // garbage found before xml start
                 fail(ctx);
                 in.skipReadableBytes(in.readableBytes());
+                reset(in);
                 return;
             } else if (!inCDATASection && readByte == '<') {
-                openingBracketFound = true;
-
-                if (i < bufferLength - 1) {
-                    final byte peekAheadByte = in.getByte(i + 1);
-                    if (peekAheadByte == '/') {
-                        // found </, we must check if it is enclosed
-                        int peekFurtherAheadIndex = i + 2;
-                        while (peekFurtherAheadIndex <= bufferLength - 1) {
-                            //if we have </ and enclosing > we can decrement openBracketsCount
-                            if (in.getByte(peekFurtherAheadIndex) == '>') {
-                                openBracketsCount--;
-                                break;
-                            }
-                            peekFurtherAheadIndex++;
+                if (i == bufferLength - 1) {
+                    // the next byte is needed to tell what kind of tag this is
+                    break;
+                }
+                final byte peekAheadByte = in.getByte(i + 1);
+                if (peekAheadByte == '/') {
+                    // found </, we must check if it is enclosed
+                    int peekFurtherAheadIndex = i + 2;
+                    while (peekFurtherAheadIndex <= bufferLength - 1) {
+                        //if we have </ and enclosing > we can decrement openBracketsCount
+                        if (in.getByte(peekFurtherAheadIndex) == '>') {
+                            break;
                         }
-                    } else if (isValidStartCharForXmlElement(peekAheadByte)) {
-                        atLeastOneXmlElementFound = true;
-                        // char after < is a valid xml element start char,
-                        // incrementing openBracketsCount
+                        peekFurtherAheadIndex++;
+                    }
+                    if (peekFurtherAheadIndex > bufferLength - 1) {
+                        // not enclosed yet, come back to this tag once more bytes were received
+                        break;
+                    }
+                    openBracketsCount--;
+                } else if (isValidStartCharForXmlElement(peekAheadByte)) {
+                    atLeastOneXmlElementFound = true;
+                    // char after < is a valid xml element start char,
+                    // incrementing openBracketsCount
+                    openBracketsCount++;
+                } else if (peekAheadByte == '!') {
+                    if (isCommentBlockStart(in, i)) {
+                        // <!-- comment --> start found
                         openBracketsCount++;
-                    } else if (peekAheadByte == '!') {
-                        if (isCommentBlockStart(in, i)) {
-                            // <!-- comment --> start found
-                            openBracketsCount++;
-                        } else if (isCDATABlockStart(in, i)) {
-                            // <![CDATA[ start found
-                            openBracketsCount++;
-                            inCDATASection = true;
-                        }
-                    } else if (peekAheadByte == '?') {
-                        // <?xml ?> start found
+                    } else if (isCDATABlockStart(in, i)) {
+                        // <![CDATA[ start found
                         openBracketsCount++;
+                        inCDATASection = true;
+                    } else if (isIncompleteBlockStart(in, i, COMMENT_BLOCK_START)
+                            || isIncompleteBlockStart(in, i, CDATA_BLOCK_START)) {
+                        // more bytes are needed to tell if this starts a comment or CDATA block
+                        break;
                     }
+                } else if (peekAheadByte == '?') {
+                    // <?xml ?> start found
+                    openBracketsCount++;
                 }
+                openingBracketFound = true;
             } else if (!inCDATASection && readByte == '/') {
-                if (i < bufferLength - 1 && in.getByte(i + 1) == '>') {
+                if (i == bufferLength - 1) {
+                    // the next byte is needed to tell if this closes an element
+                    break;
+                }
+                if (in.getByte(i + 1) == '>') {
                     // found />, decrementing openBracketsCount
                     openBracketsCount--;
                 }
@@ -220,13 +280,45 @@ public class XmlFrameDecoder extends ByteToMessageDecoder {
             if (readerIndex + xmlElementLength >= bufferLength) {
                 xmlElementLength = in.readableBytes();
             }
-            final Buffer frame =
-                    extractFrame(in, readerIndex + leadingWhiteSpaceCount, xmlElementLength - leadingWhiteSpaceCount);
-            in.skipReadableBytes(xmlElementLength);
+            final int frameLength = xmlElementLength - leadingWhiteSpaceCount;
+            in.skipReadableBytes(leadingWhiteSpaceCount);
+            final Buffer frame = extractFrame(ctx, in, in.readerOffset(), frameLength);
+            if (in.writerOffset() == bufferLength) {
+                // The frame was extracted not using split or readSplit ==>
+                // discard the bytes from the input buffer.
+                in.skipReadableBytes(frameLength);
+            }
+            // Reset the scanner state to get ready for the next xml document.
+            reset(in);
             ctx.fireChannelRead(frame);
+        } else {
+            idx = i;
+            lastReaderOffset = readerIndex;
         }
     }
 
+    /**
+     * Extracts the xml document of {@code length} bytes starting at {@code index}, which is always the current
+     * reader offset of {@code buffer}. Override this method if you want to filter the documents that get passed
+     * through the pipeline. Implementations may either copy the bytes, or split them off with
+     * {@link Buffer#readSplit(int)}.
+     */
+    @SuppressWarnings("UnusedParameters")
+    protected Buffer extractFrame(ChannelHandlerContext ctx, Buffer buffer, int index, int length) {
+        return copyFrames ? buffer.copy(index, length) : buffer.readSplit(length);
+    }
+
+    private void reset(Buffer in) {
+        openingBracketFound = false;
+        atLeastOneXmlElementFound = false;
+        inCDATASection = false;
+        openBracketsCount = 0;
+        length = 0;
+        leadingWhiteSpaceCount = 0;
+        idx = in.readerOffset();
+        lastReaderOffset = in.readerOffset();
+    }
+
     private void fail(long frameLength) {
         if (frameLength > 0) {
             throw new TooLongFrameException(
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EncodedSizePredictorTest {
+
+    @Test
+    public void testInitialSize() {
+        assertEquals(256, new EncodedSizePredictor().nextSize());
+        assertEquals(100, new EncodedSizePredictor(10, 100, 1000).nextSize());
+    }
+
+    @Test
+    public void testGrowsImmediately() {
+        EncodedSizePredictor predictor = new EncodedSizePredictor();
+        predictor.record(4096, predictor.nextSize());
+        assertTrue(predictor.nextSize() > 4096);
+        assertEquals(1, predictor.messages());
+        assertEquals(1, predictor.reallocations());
+
+        predictor.record(4096, predictor.nextSize());
+        assertEquals(2, predictor.messages());
+        assertEquals(1, predictor.reallocations());
+    }
+
+    @Test
+    public void testShrinksGradually() {
+        EncodedSizePredictor predictor = new EncodedSizePredictor();
+        predictor.record(8192, predictor.nextSize());
+        int large = predictor.nextSize();
+
+        predictor.record(100, predictor.nextSize());
+        int next = predictor.nextSize();
+        assertTrue(next < large);
+        assertTrue(next > large / 2);
+
+        for (int i = 0; i < 100; i++) {
+            predictor.record(100, predictor.nextSize());
+        }
+        assertTrue(predictor.nextSize() >= 100);
+        assertTrue(predictor.nextSize() < 256);
+        assertEquals(1, predictor.reallocations());
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        EncodedSizePredictor predictor = new EncodedSizePredictor(64, 128, 1024);
+        predictor.record(Integer.MAX_VALUE, predictor.nextSize());
+        assertEquals(1024, predictor.nextSize());
+        for (int i = 0; i < 100; i++) {
+            predictor.record(0, predictor.nextSize());
+        }
+        assertEquals(64, predictor.nextSize());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new EncodedSizePredictor(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new EncodedSizePredictor(10, 9, 100));
+        assertThrows(IllegalArgumentException.class, () -> new EncodedSizePredictor(10, 100, 99));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} which queues the tasks until the test runs them, so that the offloaded work runs on the thread
+ * of the test. An {@link io.netty5.channel.embedded.EmbeddedChannel} must only be used from that thread, as its event
+ * loop runs the tasks which are handed over from other threads right away on the calling thread.
+ */
+public final class ManualExecutor implements Executor {
+
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+    }
+
+    /**
+     * Returns the number of tasks which wait to be run.
+     */
+    public int pendingTasks() {
+        return tasks.size();
+    }
+
+    /**
+     * Runs the next task, if any.
+     *
+     * @return {@code true} if a task was run
+     */
+    public boolean runNext() {
+        Runnable task = tasks.poll();
+        if (task == null) {
+            return false;
+        }
+        task.run();
+        return true;
+    }
+
+    /**
+     * Runs the tasks until there are none left, including the ones which are added meanwhile.
+     *
+     * @return the number of tasks which were run
+     */
+    public int runAll() {
+        int run = 0;
+        while (runNext()) {
+            run++;
+        }
+        return run;
+    }
+}
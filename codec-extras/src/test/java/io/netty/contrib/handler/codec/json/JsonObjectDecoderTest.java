@@ -408,4 +408,60 @@ public class JsonObjectDecoderTest {
 
         assertFalse(ch.finish());
     }
+
+    @Test
+    public void testStructuralCharactersAtEveryWordOffset() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            builder.append(i == 0 ? "" : ", ").append("{\"k").append(i).append("\": \"")
+                   .append("x".repeat(i % 11)).append("{[\\\"]}\", \"n\":[").append(i).append(", {}]}");
+        }
+        String element = builder.toString();
+        String object = "{\"items\": [" + element + "]}";
+        String array = "[" + element + "]";
+
+        for (int chunkSize = 1; chunkSize <= 17; chunkSize++) {
+            EmbeddedChannel ch = new EmbeddedChannel(new JsonObjectDecoder());
+            writeInChunks(ch, object + " \n" + array + object, chunkSize);
+            for (String expected : new String[] { object, array, object }) {
+                try (Buffer res = ch.readInbound()) {
+                    assertEquals(expected, res.toString(StandardCharsets.UTF_8));
+                }
+            }
+            assertFalse(ch.finish());
+
+            ch = new EmbeddedChannel(new JsonObjectDecoder(true));
+            writeInChunks(ch, array, chunkSize);
+            for (int i = 0; i < 64; i++) {
+                try (Buffer res = ch.readInbound()) {
+                    assertTrue(res.toString(StandardCharsets.UTF_8).startsWith("{\"k" + i + "\": "));
+                }
+            }
+            assertFalse(ch.finish());
+        }
+    }
+
+    @Test
+    public void testBackslashRunsSplitAcrossWrites() {
+        // Runs of escaped backslashes, followed by an escaped and an unescaped double quote.
+        String object = "{\"a\": \"" + "\\\\".repeat(20) + "\\\"}" + "\\\\".repeat(3) + "\"}";
+        for (int chunkSize = 1; chunkSize <= 9; chunkSize++) {
+            EmbeddedChannel ch = new EmbeddedChannel(new JsonObjectDecoder());
+            writeInChunks(ch, object + object, chunkSize);
+            for (int i = 0; i < 2; i++) {
+                try (Buffer res = ch.readInbound()) {
+                    assertEquals(object, res.toString(StandardCharsets.UTF_8));
+                }
+            }
+            assertFalse(ch.finish());
+        }
+    }
+
+    private static void writeInChunks(EmbeddedChannel ch, String data, int chunkSize) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - i);
+            ch.writeInbound(ch.bufferAllocator().allocate(length).writeBytes(bytes, i, length));
+        }
+    }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty.contrib.handler.codec.ManualExecutor;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelOption;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.CorruptedFrameException;
+import io.netty5.handler.codec.EncoderException;
+import io.netty5.handler.codec.TooLongFrameException;
+import io.netty5.util.concurrent.Future;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static io.netty5.buffer.DefaultBufferAllocators.preferredAllocator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public abstract class AbstractChunkedMarshallingTest extends AbstractMarshallingTest {
+
+    private static final int CHUNK_SIZE = 64;
+
+    @Test
+    public void testSmallObject() {
+        EmbeddedChannel encoder = newEncoder();
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        // A single chunk followed by the end of the object.
+        Buffer buffer = encoder.readOutbound();
+        assertNull(encoder.readOutbound());
+        assertEquals(0, buffer.getInt(buffer.writerOffset() - 4));
+        assertEquals(buffer.readableBytes() - 8, buffer.getInt(buffer.readerOffset()));
+
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE);
+        assertTrue(decoder.writeInbound(buffer));
+        assertEquals("test", decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testSmallObjectDoesNotTakeUpFullChunk() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ChunkedMarshallingEncoder(
+                new DefaultMarshallerProvider(createMarshallerFactory(), createMarshallingConfig())));
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        try (Buffer buffer = encoder.readOutbound()) {
+            assertNull(encoder.readOutbound());
+            assertEquals(0, buffer.getInt(buffer.writerOffset() - 4));
+            assertTrue(buffer.capacity() < ChunkedMarshallingEncoder.DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    @Test
+    public void testLargeObject() {
+        List<String> testObject = newList(1000);
+
+        EmbeddedChannel encoder = newEncoder();
+        for (int i = 0; i < 2; i++) {
+            assertTrue(encoder.writeOutbound(testObject));
+        }
+        assertTrue(encoder.finish());
+
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE);
+        int chunks = 0;
+        for (;;) {
+            try (Buffer buffer = encoder.readOutbound()) {
+                if (buffer == null) {
+                    break;
+                }
+                assertTrue(buffer.readableBytes() <= CHUNK_SIZE + 8);
+                chunks++;
+                // Deliver the chunks in fragments to exercise partial chunks.
+                while (buffer.readableBytes() > 0) {
+                    decoder.writeInbound(buffer.readSplit(Math.min(buffer.readableBytes(), 25)));
+                }
+            }
+        }
+        assertTrue(chunks > 2 * 100);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(testObject, decoder.readInbound());
+        }
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testTooLongObject() {
+        EmbeddedChannel encoder = newEncoder();
+        assertTrue(encoder.writeOutbound(newList(100)));
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        EmbeddedChannel decoder = newDecoder(512);
+        assertThrows(TooLongFrameException.class, () -> {
+            Buffer buffer;
+            while ((buffer = encoder.readOutbound()) != null) {
+                decoder.writeInbound(buffer);
+            }
+        });
+        // The rest of the too long object is discarded and the next one decoded.
+        Buffer buffer;
+        while ((buffer = encoder.readOutbound()) != null) {
+            decoder.writeInbound(buffer);
+        }
+        assertEquals("test", decoder.readInbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testAbortedObject() {
+        List<Object> notSerializable = new ArrayList<>(newList(100));
+        notSerializable.add(new Object());
+
+        EmbeddedChannel encoder = newEncoder();
+        Future<Void> future = encoder.writeOneOutbound(notSerializable);
+        encoder.flushOutbound();
+        assertTrue(future.isFailed());
+        assertInstanceOf(EncoderException.class, future.cause());
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE);
+        Buffer buffer;
+        while ((buffer = encoder.readOutbound()) != null) {
+            decoder.writeInbound(buffer);
+        }
+        assertEquals("test", decoder.readInbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testOffloadReadsChunksAsTheyArrive() {
+        List<String> testObject = newList(1000);
+        EmbeddedChannel encoder = newEncoder();
+        assertTrue(encoder.writeOutbound(testObject));
+        assertTrue(encoder.finish());
+
+        ManualExecutor executor = new ManualExecutor();
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE, executor, 1024);
+        decoder.writeInbound((Buffer) encoder.readOutbound());
+        // The Unmarshaller is handed to the executor with the first chunk.
+        assertEquals(1, executor.pendingTasks());
+        Buffer buffer;
+        while ((buffer = encoder.readOutbound()) != null) {
+            decoder.writeInbound(buffer);
+        }
+        // More than 1024 bytes wait for the Unmarshaller.
+        assertFalse(decoder.getOption(ChannelOption.AUTO_READ));
+
+        assertEquals(1, executor.runAll());
+        assertTrue(decoder.getOption(ChannelOption.AUTO_READ));
+        assertEquals(testObject, decoder.readInbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testOffloadAbortedObject() {
+        List<Object> notSerializable = new ArrayList<>(newList(100));
+        notSerializable.add(new Object());
+
+        EmbeddedChannel encoder = newEncoder();
+        encoder.writeOneOutbound(notSerializable);
+        encoder.flushOutbound();
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        ManualExecutor executor = new ManualExecutor();
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE, executor, 1024 * 1024);
+        Buffer buffer;
+        while ((buffer = encoder.readOutbound()) != null) {
+            decoder.writeInbound(buffer);
+        }
+        // Neither the aborted object nor the failure of its Unmarshaller are passed on.
+        assertEquals(2, executor.runAll());
+        decoder.checkException();
+        assertEquals("test", decoder.readInbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testOffloadTooLongObject() {
+        EmbeddedChannel encoder = newEncoder();
+        assertTrue(encoder.writeOutbound(newList(100)));
+        assertTrue(encoder.writeOutbound("test"));
+        assertTrue(encoder.finish());
+
+        ManualExecutor executor = new ManualExecutor();
+        EmbeddedChannel decoder = newDecoder(512, executor, 1024 * 1024);
+        assertThrows(TooLongFrameException.class, () -> {
+            Buffer buffer;
+            while ((buffer = encoder.readOutbound()) != null) {
+                decoder.writeInbound(buffer);
+            }
+        });
+        Buffer buffer;
+        while ((buffer = encoder.readOutbound()) != null) {
+            decoder.writeInbound(buffer);
+        }
+        assertEquals(2, executor.runAll());
+        decoder.checkException();
+        assertEquals("test", decoder.readInbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testNegativeChunkLength() {
+        EmbeddedChannel decoder = newDecoder(Integer.MAX_VALUE);
+        assertThrows(CorruptedFrameException.class,
+                () -> decoder.writeInbound(preferredAllocator().allocate(4).writeInt(-2)));
+        assertFalse(decoder.finish());
+    }
+
+    private EmbeddedChannel newEncoder() {
+        return new EmbeddedChannel(new ChunkedMarshallingEncoder(
+                new DefaultMarshallerProvider(createMarshallerFactory(), createMarshallingConfig()), CHUNK_SIZE));
+    }
+
+    private EmbeddedChannel newDecoder(int maxObjectSize) {
+        return new EmbeddedChannel(new ChunkedMarshallingDecoder(
+                new DefaultUnmarshallerProvider(createMarshallerFactory(), createMarshallingConfig()), maxObjectSize));
+    }
+
+    private EmbeddedChannel newDecoder(int maxObjectSize, Executor executor, int maxQueuedBytes) {
+        return new EmbeddedChannel(new ChunkedMarshallingDecoder(
+                new DefaultUnmarshallerProvider(createMarshallerFactory(), createMarshallingConfig()), maxObjectSize,
+                executor, maxQueuedBytes));
+    }
+
+    private static List<String> newList(int size) {
+        ArrayList<String> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("element-" + i);
+        }
+        return list;
+    }
+
+    protected abstract MarshallerFactory createMarshallerFactory();
+
+    protected abstract MarshallingConfiguration createMarshallingConfig();
+}
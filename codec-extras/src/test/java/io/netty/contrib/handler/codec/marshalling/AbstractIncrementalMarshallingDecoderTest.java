@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty.contrib.handler.codec.ManualExecutor;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerAdapter;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.TooLongFrameException;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public abstract class AbstractIncrementalMarshallingDecoderTest extends AbstractMarshallingTest {
+
+    // Every frame is only unmarshalled once all of its bytes were written, as the Unmarshaller would block the
+    // thread of the test otherwise.
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Test
+    public void testFragmentedObjectsInOrder() {
+        List<List<String>> objects = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            objects.add(newList(i * 37));
+        }
+
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(Integer.MAX_VALUE, 1024 * 1024));
+        for (Buffer frame : encode(objects)) {
+            try (frame) {
+                while (frame.readableBytes() > 0) {
+                    ch.writeInbound(frame.readSplit(Math.min(frame.readableBytes(), 100)));
+                }
+            }
+        }
+        assertEquals(objects.size(), executor.runAll());
+        for (List<String> object : objects) {
+            assertEquals(object, ch.readInbound());
+        }
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testStartsBeforeFrameIsComplete() {
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(Integer.MAX_VALUE, 1024 * 1024));
+
+        Buffer frame = encode(List.of(newList(100))).get(0);
+        ch.writeInbound(frame.readSplit(frame.readableBytes() / 2));
+        // The Unmarshaller is handed to the executor as soon as the length of the frame is known.
+        assertEquals(1, executor.pendingTasks());
+        assertNull(ch.readInbound());
+
+        ch.writeInbound(frame);
+        assertEquals(1, executor.runAll());
+        assertEquals(newList(100), ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testSuspendsReading() {
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(Integer.MAX_VALUE, 256));
+        assertTrue(ch.getOption(ChannelOption.AUTO_READ));
+
+        List<List<String>> objects = List.of(newList(100), newList(100));
+        for (Buffer frame : encode(objects)) {
+            ch.writeInbound(frame);
+        }
+        assertFalse(ch.getOption(ChannelOption.AUTO_READ));
+
+        // Reading resumes once no more than half of the allowed bytes are queued, which is only after both frames.
+        assertTrue(executor.runNext());
+        assertFalse(ch.getOption(ChannelOption.AUTO_READ));
+        assertTrue(executor.runNext());
+        assertTrue(ch.getOption(ChannelOption.AUTO_READ));
+        for (List<String> object : objects) {
+            assertEquals(object, ch.readInbound());
+        }
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testRejectsContextBoundProvider() {
+        assertThrows(IllegalArgumentException.class, () -> new MarshallingDecoder(new ContextBoundUnmarshallerProvider(
+                createMarshallerFactory(), createMarshallingConfig()), Integer.MAX_VALUE, executor, 1024));
+    }
+
+    @Test
+    public void testTooBigObject() {
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(512, 1024 * 1024));
+        List<Buffer> frames = encode(List.of(newList(100), "test"));
+        Buffer tooBig = frames.get(0);
+        assertThrows(TooLongFrameException.class, () -> ch.writeInbound(tooBig.readSplit(10)));
+        ch.writeInbound(tooBig);
+        ch.writeInbound(frames.get(1));
+        assertEquals(1, executor.runAll());
+        assertEquals("test", ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testTruncatedFrame() {
+        EventRecorder recorder = new EventRecorder();
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(Integer.MAX_VALUE, 1024 * 1024), recorder);
+        Buffer frame = encode(List.of(newList(100))).get(0);
+        ch.writeInbound(frame.readSplit(frame.readableBytes() / 2));
+        frame.close();
+        // Closing the channel must not leave the Unmarshaller waiting for the rest of the frame, and its failure
+        // must not be passed on after channelInactive.
+        ch.pipeline().fireChannelInactive();
+        assertEquals(1, executor.runAll());
+        ch.runPendingTasks();
+        assertEquals(List.of("inactive"), recorder.events);
+        assertFalse(ch.finish());
+    }
+
+    private MarshallingDecoder newDecoder(int maxObjectSize, int maxQueuedBytes) {
+        return new MarshallingDecoder(newProvider(), maxObjectSize, executor, maxQueuedBytes);
+    }
+
+    private UnmarshallerProvider newProvider() {
+        return new DefaultUnmarshallerProvider(createMarshallerFactory(), createMarshallingConfig());
+    }
+
+    private List<Buffer> encode(List<?> objects) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new MarshallingEncoder(
+                new DefaultMarshallerProvider(createMarshallerFactory(), createMarshallingConfig())));
+        List<Buffer> frames = new ArrayList<>();
+        for (Object object : objects) {
+            assertTrue(encoder.writeOutbound(object));
+            frames.add(encoder.readOutbound());
+        }
+        assertFalse(encoder.finish());
+        return frames;
+    }
+
+    private static List<String> newList(int size) {
+        ArrayList<String> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("element-" + i);
+        }
+        return list;
+    }
+
+    protected abstract MarshallerFactory createMarshallerFactory();
+
+    protected abstract MarshallingConfiguration createMarshallingConfig();
+
+    /**
+     * Records the events which reach the end of the pipeline, in the order they arrived.
+     */
+    private static final class EventRecorder extends ChannelHandlerAdapter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            events.add("read");
+        }
+
+        @Override
+        public void channelExceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            events.add("exception");
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            events.add("inactive");
+            ctx.fireChannelInactive();
+        }
+    }
+}
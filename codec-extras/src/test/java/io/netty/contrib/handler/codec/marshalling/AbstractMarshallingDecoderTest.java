@@ -26,6 +26,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.netty5.buffer.DefaultBufferAllocators.preferredAllocator;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -63,6 +65,26 @@ public abstract class AbstractMarshallingDecoderTest extends AbstractMarshalling
         assertNull(ch.readInbound());
     }
 
+    @Test
+    public void testUnmarshallingMultipleMessages() {
+        ArrayList<String> testObject = new ArrayList<>(List.of("test", "test2"));
+
+        EmbeddedChannel encoder = new EmbeddedChannel(new MarshallingEncoder(
+                new DefaultMarshallerProvider(createMarshallerFactory(), createMarshallingConfig())));
+        for (int i = 0; i < 3; i++) {
+            encoder.writeOutbound(testObject);
+        }
+        assertTrue(encoder.finish());
+
+        EmbeddedChannel ch = new EmbeddedChannel(createDecoder(Integer.MAX_VALUE));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ch.writeInbound((Object) encoder.readOutbound()));
+            assertEquals(testObject, ch.readInbound());
+        }
+        assertNull(encoder.readOutbound());
+        assertFalse(ch.finish());
+    }
+
     protected Buffer input(byte[] input) {
         return preferredAllocator().copyOf(input);
     }
@@ -17,17 +17,29 @@ package io.netty.contrib.handler.codec.marshalling;
 
 import io.netty5.buffer.Buffer;
 import io.netty5.channel.ChannelHandler;
+import io.netty5.channel.ChannelHandlerContext;
 import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.EncoderException;
+import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.MarshallingConfiguration;
 import org.jboss.marshalling.Unmarshaller;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public abstract class AbstractMarshallingEncoderTest extends AbstractMarshallingTest {
@@ -67,6 +79,114 @@ public abstract class AbstractMarshallingEncoderTest extends AbstractMarshalling
         }
     }
 
+    @Test
+    public void testMarshallingMultipleMessages() {
+        // The same instance goes into every message, so a reused marshaller which did not clear its caches would
+        // write back references to the previous message.
+        ArrayList<String> testObject = new ArrayList<>(List.of("test", "test2"));
+
+        EmbeddedChannel ch = new EmbeddedChannel(createEncoder());
+        for (int i = 0; i < 3; i++) {
+            ch.writeOutbound(testObject);
+        }
+        assertTrue(ch.finish());
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new MarshallingDecoder(
+                new DefaultUnmarshallerProvider(createMarshallerFactory(), createMarshallingConfig())));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(decoder.writeInbound((Object) ch.readOutbound()));
+            assertEquals(testObject, decoder.readInbound());
+        }
+        assertNull(ch.readOutbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testMarshallingLargeObjectGraph() {
+        // Much larger than the initial buffer, so it has to grow several times while marshalling.
+        ArrayList<String> testObject = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            testObject.add("element-" + i);
+        }
+
+        EmbeddedChannel ch = new EmbeddedChannel(createEncoder());
+        for (int i = 0; i < 2; i++) {
+            ch.writeOutbound(testObject);
+        }
+        assertTrue(ch.finish());
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new MarshallingDecoder(
+                new DefaultUnmarshallerProvider(createMarshallerFactory(), createMarshallingConfig())));
+        for (int i = 0; i < 2; i++) {
+            assertTrue(decoder.writeInbound((Object) ch.readOutbound()));
+            assertEquals(testObject, decoder.readInbound());
+        }
+        assertNull(ch.readOutbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testPredictsEncodedSize() {
+        ArrayList<String> testObject = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            testObject.add("element-" + i);
+        }
+
+        MarshallingEncoder encoder = new MarshallingEncoder(createProvider());
+        EmbeddedChannel ch = new EmbeddedChannel(encoder);
+        for (int i = 0; i < 8; i++) {
+            ch.writeOutbound(testObject);
+        }
+        assertTrue(ch.finishAndReleaseAll());
+
+        // Only the first message did not fit into the initial buffer.
+        assertEquals(8, encoder.sizePredictor().messages());
+        assertEquals(1, encoder.sizePredictor().reallocations());
+    }
+
+    @Test
+    public void testFinishFailureDoesNotHideMarshallingFailure() {
+        MarshallerProvider delegate = createProvider();
+        List<String> calls = new ArrayList<>();
+        MarshallerProvider provider = new MarshallerProvider() {
+            @Override
+            public Marshaller getMarshaller(ChannelHandlerContext ctx) throws Exception {
+                Marshaller marshaller = delegate.getMarshaller(ctx);
+                return (Marshaller) Proxy.newProxyInstance(Marshaller.class.getClassLoader(),
+                        new Class<?>[] { Marshaller.class }, (proxy, method, args) -> {
+                            if ("finish".equals(method.getName())) {
+                                throw new IOException("finish failed");
+                            }
+                            try {
+                                return method.invoke(marshaller, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+
+            @Override
+            public void releaseMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) {
+                calls.add("release");
+            }
+
+            @Override
+            public void discardMarshaller(ChannelHandlerContext ctx, Marshaller marshaller) {
+                calls.add("discard");
+            }
+        };
+
+        EmbeddedChannel ch = new EmbeddedChannel(new MarshallingEncoder(provider));
+        EncoderException e = assertThrows(EncoderException.class, () -> ch.writeOutbound(new Object()));
+        // The marshalling failure is reported, with the failure to finish attached to it.
+        assertInstanceOf(NotSerializableException.class, e.getCause());
+        assertEquals(1, e.getCause().getSuppressed().length);
+        assertEquals("finish failed", e.getCause().getSuppressed()[0].getMessage());
+        // A marshaller which failed to finish must not be reused.
+        assertEquals(List.of("discard"), calls);
+        assertFalse(ch.finish());
+    }
+
     protected Buffer truncate(Buffer buf) {
         return buf.split();
     }
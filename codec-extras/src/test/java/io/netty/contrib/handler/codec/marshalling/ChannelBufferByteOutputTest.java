@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.netty5.buffer.BufferAllocator.offHeapUnpooled;
+import static io.netty5.buffer.BufferAllocator.onHeapUnpooled;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChannelBufferByteOutputTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        for (BufferAllocator allocator : List.of(onHeapUnpooled(), offHeapUnpooled())) {
+            try (Buffer buffer = allocator.allocate(8)) {
+                byte[] expected = writeChunks(new ChannelBufferByteOutput(buffer));
+                assertContent(expected, buffer);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteComposite() throws Exception {
+        BufferAllocator allocator = onHeapUnpooled();
+        try (Buffer buffer = allocator.compose(List.of(
+                allocator.allocate(3).send(), offHeapUnpooled().allocate(5).send()))) {
+            byte[] expected = writeChunks(new ChannelBufferByteOutput(buffer));
+            assertContent(expected, buffer);
+        }
+    }
+
+    @Test
+    public void testGrowsGeometrically() throws Exception {
+        try (Buffer buffer = onHeapUnpooled().allocate(16)) {
+            ChannelBufferByteOutput output = new ChannelBufferByteOutput(buffer);
+            output.write(new byte[17]);
+            assertTrue(buffer.capacity() >= 32);
+            output.write(new byte[buffer.writableBytes()]);
+            output.write(1);
+            assertTrue(buffer.capacity() >= 64);
+        }
+    }
+
+    @Test
+    public void testRespectsImplicitCapacityLimit() throws Exception {
+        try (Buffer buffer = onHeapUnpooled().allocate(16).implicitCapacityLimit(20)) {
+            ChannelBufferByteOutput output = new ChannelBufferByteOutput(buffer);
+            output.write(new byte[18]);
+            assertEquals(18, buffer.readableBytes());
+            assertTrue(buffer.capacity() <= 20);
+            assertThrows(IndexOutOfBoundsException.class, () -> output.write(new byte[3]));
+        }
+    }
+
+    private static byte[] writeChunks(ChannelBufferByteOutput output) throws Exception {
+        byte[] expected = new byte[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        int offset = 0;
+        for (int length = 1; offset + length <= expected.length; length++) {
+            output.write(expected, offset, length);
+            offset += length;
+        }
+        while (offset < expected.length) {
+            output.write(expected[offset++]);
+        }
+        return expected;
+    }
+
+    private static void assertContent(byte[] expected, Buffer buffer) {
+        assertEquals(expected.length, buffer.readableBytes());
+        byte[] actual = new byte[expected.length];
+        buffer.copyInto(buffer.readerOffset(), actual, 0, actual.length);
+        assertArrayEquals(expected, actual);
+    }
+}
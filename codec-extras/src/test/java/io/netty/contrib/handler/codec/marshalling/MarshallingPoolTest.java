@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.marshalling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarshallingPoolTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void testReusesMostRecentlyReturned() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(4, 100, nanoTime::get);
+        assertNull(pool.poll());
+
+        Instance first = new Instance();
+        Instance second = new Instance();
+        pool.offer(first);
+        pool.offer(second);
+        assertEquals(2, pool.size());
+
+        assertSame(second, pool.poll());
+        assertSame(first, pool.poll());
+        assertNull(pool.poll());
+        assertEquals(0, pool.size());
+        assertFalse(first.closed);
+        assertFalse(second.closed);
+    }
+
+    @Test
+    public void testClosesWhenFull() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(2, 100, nanoTime::get);
+        Instance[] instances = { new Instance(), new Instance(), new Instance() };
+        for (Instance instance : instances) {
+            pool.offer(instance);
+        }
+        assertEquals(2, pool.size());
+        assertFalse(instances[0].closed);
+        assertFalse(instances[1].closed);
+        assertTrue(instances[2].closed);
+    }
+
+    @Test
+    public void testEvictsIdle() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(4, 100, nanoTime::get);
+        Instance old = new Instance();
+        Instance recent = new Instance();
+        pool.offer(old);
+        nanoTime.set(60);
+        pool.offer(recent);
+
+        nanoTime.set(120);
+        Instance current = new Instance();
+        pool.offer(current);
+        assertTrue(old.closed);
+        assertFalse(recent.closed);
+        assertFalse(current.closed);
+        assertEquals(2, pool.size());
+
+        assertSame(current, pool.poll());
+        assertSame(recent, pool.poll());
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void testEvictsIdleOnPoll() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(4, 100, nanoTime::get);
+        Instance old = new Instance();
+        pool.offer(old);
+
+        // Nothing was returned since, but the idle instance must neither be kept nor handed out.
+        nanoTime.set(100);
+        assertNull(pool.poll());
+        assertTrue(old.closed);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testZeroMaxIdleTimeKeepsIdle() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(4, 0, nanoTime::get);
+        Instance instance = new Instance();
+        pool.offer(instance);
+
+        nanoTime.set(Long.MAX_VALUE);
+        pool.offer(new Instance());
+        assertEquals(2, pool.size());
+        assertFalse(instance.closed);
+    }
+
+    @Test
+    public void testClear() {
+        MarshallingPool<Instance> pool = new MarshallingPool<>(4, 100, nanoTime::get);
+        Instance first = new Instance();
+        Instance second = new Instance();
+        pool.offer(first);
+        pool.offer(second);
+        pool.clear();
+        assertTrue(first.closed);
+        assertTrue(second.closed);
+        assertEquals(0, pool.size());
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MarshallingPool<Instance>(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new MarshallingPool<Instance>(1, -1));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final int maxSize = 4;
+        MarshallingPool<Instance> pool = new MarshallingPool<>(maxSize, Long.MAX_VALUE);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closedHandedOut = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 10000; j++) {
+                    Instance instance = pool.poll();
+                    if (instance == null) {
+                        instance = new Instance();
+                        created.incrementAndGet();
+                    }
+                    if (instance.closed) {
+                        closedHandedOut.incrementAndGet();
+                    }
+                    pool.offer(instance);
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, closedHandedOut.get());
+        assertTrue(pool.size() <= maxSize);
+        assertTrue(created.get() < threads.length * 10000);
+    }
+
+    private static final class Instance implements AutoCloseable {
+        volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
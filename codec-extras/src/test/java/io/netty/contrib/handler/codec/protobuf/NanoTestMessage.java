@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.nano.CodedInputByteBufferNano;
+import com.google.protobuf.nano.CodedOutputByteBufferNano;
+import com.google.protobuf.nano.MessageNano;
+import com.google.protobuf.nano.WireFormatNano;
+
+import java.io.IOException;
+
+/**
+ * A hand written equivalent of the nano message generated for
+ * {@code message NanoTestMessage { string text = 1; int32 number = 2; }}.
+ */
+public final class NanoTestMessage extends MessageNano {
+
+    public String text = "";
+    public int number;
+
+    public NanoTestMessage() {
+        cachedSize = -1;
+    }
+
+    static NanoTestMessage newInstance(String text, int number) {
+        NanoTestMessage message = new NanoTestMessage();
+        message.text = text;
+        message.number = number;
+        return message;
+    }
+
+    @Override
+    public void writeTo(CodedOutputByteBufferNano output) throws IOException {
+        if (!text.isEmpty()) {
+            output.writeString(1, text);
+        }
+        if (number != 0) {
+            output.writeInt32(2, number);
+        }
+        super.writeTo(output);
+    }
+
+    @Override
+    protected int computeSerializedSize() {
+        int size = super.computeSerializedSize();
+        if (!text.isEmpty()) {
+            size += CodedOutputByteBufferNano.computeStringSize(1, text);
+        }
+        if (number != 0) {
+            size += CodedOutputByteBufferNano.computeInt32Size(2, number);
+        }
+        return size;
+    }
+
+    @Override
+    public NanoTestMessage mergeFrom(CodedInputByteBufferNano input) throws IOException {
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0:
+                    return this;
+                case 10:
+                    text = input.readString();
+                    break;
+                case 16:
+                    number = input.readInt32();
+                    break;
+                default:
+                    if (!WireFormatNano.parseUnknownField(input, tag)) {
+                        return this;
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof NanoTestMessage)) {
+            return false;
+        }
+        NanoTestMessage that = (NanoTestMessage) o;
+        return number == that.number && text.equals(that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * text.hashCode() + number;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.nano.MessageNano;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.netty5.buffer.BufferAllocator.offHeapUnpooled;
+import static io.netty5.buffer.BufferAllocator.onHeapUnpooled;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufDecoderNanoTest {
+
+    private static final NanoTestMessage MESSAGE = NanoTestMessage.newInstance("Netty rocks!", 42);
+
+    @Test
+    public void testDecodeOnHeapBuffer() {
+        byte[] bytes = MessageNano.toByteArray(MESSAGE);
+        Buffer buffer = onHeapUnpooled().allocate(bytes.length + 8);
+        buffer.writeLong(-1).writeBytes(bytes).skipReadableBytes(Long.BYTES);
+        testDecode(new ProtobufDecoderNano(NanoTestMessage.class), buffer);
+    }
+
+    @Test
+    public void testDecodeOffHeapBuffer() {
+        testDecode(new ProtobufDecoderNano(NanoTestMessage.class),
+                offHeapUnpooled().copyOf(MessageNano.toByteArray(MESSAGE)));
+    }
+
+    @Test
+    public void testDecodeCompositeBuffer() {
+        byte[] bytes = MessageNano.toByteArray(MESSAGE);
+        int half = bytes.length / 2;
+        Buffer composite = onHeapUnpooled().compose(List.of(
+                onHeapUnpooled().allocate(half).writeBytes(bytes, 0, half).send(),
+                onHeapUnpooled().allocate(bytes.length - half).writeBytes(bytes, half, bytes.length - half).send()));
+        testDecode(new ProtobufDecoderNano(NanoTestMessage.class), composite);
+    }
+
+    @Test
+    public void testDecodeWithFactory() {
+        testDecode(new ProtobufDecoderNano(NanoTestMessage::new),
+                onHeapUnpooled().copyOf(MessageNano.toByteArray(MESSAGE)));
+    }
+
+    @Test
+    public void testAbstractClass() {
+        assertThrows(IllegalArgumentException.class, () -> new ProtobufDecoderNano(MessageNano.class));
+    }
+
+    private static void testDecode(ProtobufDecoderNano decoder, Buffer buffer) {
+        EmbeddedChannel ch = new EmbeddedChannel(decoder);
+        assertTrue(ch.writeInbound(buffer));
+        assertThat((Object) ch.readInbound()).isEqualTo(MESSAGE);
+        assertFalse(buffer.isAccessible());
+        assertFalse(ch.finish());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.netty5.buffer.BufferAllocator.offHeapUnpooled;
+import static io.netty5.buffer.BufferAllocator.onHeapUnpooled;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufDecoderTest {
+
+    private static final Struct MESSAGE = Struct.newBuilder()
+            .putFields("text", Value.newBuilder().setStringValue("Netty rocks!").build())
+            .putFields("number", Value.newBuilder().setNumberValue(42).build())
+            .build();
+
+    @Test
+    public void testDecodeOnHeapBuffer() {
+        testDecode(onHeapUnpooled().copyOf(MESSAGE.toByteArray()));
+    }
+
+    @Test
+    public void testDecodeOffHeapBuffer() {
+        testDecode(offHeapUnpooled().copyOf(MESSAGE.toByteArray()));
+    }
+
+    @Test
+    public void testDecodeCompositeBuffer() {
+        byte[] bytes = MESSAGE.toByteArray();
+        int half = bytes.length / 2;
+        BufferAllocator allocator = onHeapUnpooled();
+        Buffer composite = allocator.compose(List.of(
+                onHeapUnpooled().allocate(half).writeBytes(bytes, 0, half).send(),
+                offHeapUnpooled().allocate(bytes.length - half).writeBytes(bytes, half, bytes.length - half).send()));
+        testDecode(composite);
+    }
+
+    @Test
+    public void testDecodeFromReaderOffset() {
+        byte[] bytes = MESSAGE.toByteArray();
+        Buffer buffer = onHeapUnpooled().allocate(bytes.length + 8);
+        buffer.writeLong(-1).writeBytes(bytes).skipReadableBytes(Long.BYTES);
+        testDecode(buffer);
+    }
+
+    @Test
+    public void testDecodeEmptyBuffer() {
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufDecoder(Struct.getDefaultInstance()));
+        assertTrue(ch.writeInbound(onHeapUnpooled().allocate(0)));
+        assertThat((Object) ch.readInbound()).isEqualTo(Struct.getDefaultInstance());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testDecodeTruncatedMessage() {
+        byte[] bytes = MESSAGE.toByteArray();
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufDecoder(Struct.getDefaultInstance()));
+        DecoderException e = assertThrows(DecoderException.class, () ->
+                ch.writeInbound(offHeapUnpooled().allocate(bytes.length - 1).writeBytes(bytes, 0, bytes.length - 1)));
+        assertThat(e).hasCauseInstanceOf(InvalidProtocolBufferException.class);
+        assertFalse(ch.finish());
+    }
+
+    private static void testDecode(Buffer buffer) {
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufDecoder(Struct.getDefaultInstance()));
+        assertTrue(ch.writeInbound(buffer));
+        assertThat((Object) ch.readInbound()).isEqualTo(MESSAGE);
+        assertFalse(buffer.isAccessible());
+        assertFalse(ch.finish());
+    }
+}
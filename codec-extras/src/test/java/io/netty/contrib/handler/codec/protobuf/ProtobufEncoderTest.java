@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.netty5.buffer.BufferAllocator.offHeapUnpooled;
+import static io.netty5.buffer.BufferAllocator.onHeapUnpooled;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufEncoderTest {
+
+    private static final Struct MESSAGE = Struct.newBuilder()
+            .putFields("text", Value.newBuilder().setStringValue("Netty rocks!").build())
+            .putFields("number", Value.newBuilder().setNumberValue(42).build())
+            .build();
+
+    @Test
+    public void testEncodeMessage() {
+        testEncode(MESSAGE, MESSAGE.toByteArray());
+    }
+
+    @Test
+    public void testEncodeBuilder() {
+        testEncode(MESSAGE.toBuilder(), MESSAGE.toByteArray());
+    }
+
+    @Test
+    public void testEncodeEmptyMessage() {
+        testEncode(Struct.getDefaultInstance(), new byte[0]);
+    }
+
+    @Test
+    public void testWriteMessageOnHeap() throws Exception {
+        testWriteMessage(onHeapUnpooled());
+    }
+
+    @Test
+    public void testWriteMessageOffHeap() throws Exception {
+        testWriteMessage(offHeapUnpooled());
+    }
+
+    @Test
+    public void testWriteMessageComposite() throws Exception {
+        final int size = MESSAGE.getSerializedSize();
+        try (Buffer buffer = onHeapUnpooled().compose(List.of(
+                onHeapUnpooled().allocate(size / 2).send(),
+                offHeapUnpooled().allocate(size - size / 2).send()))) {
+            ProtobufEncoder.writeMessage(MESSAGE, size, buffer);
+            assertWritten(buffer, MESSAGE.toByteArray());
+        }
+    }
+
+    @Test
+    public void testWriteMessageCompositeSingleComponent() throws Exception {
+        final int size = MESSAGE.getSerializedSize();
+        // The first component has room for the whole message.
+        try (Buffer buffer = onHeapUnpooled().compose(List.of(
+                offHeapUnpooled().allocate(size + 4).send(),
+                onHeapUnpooled().allocate(8).send()))) {
+            ProtobufEncoder.writeMessage(MESSAGE, size, buffer);
+            assertWritten(buffer, MESSAGE.toByteArray());
+        }
+    }
+
+    private static void testWriteMessage(BufferAllocator allocator) throws Exception {
+        final int size = MESSAGE.getSerializedSize();
+        try (Buffer buffer = allocator.allocate(size + 8)) {
+            buffer.writeLong(-1).skipReadableBytes(Long.BYTES);
+            ProtobufEncoder.writeMessage(MESSAGE, size, buffer);
+            assertWritten(buffer, MESSAGE.toByteArray());
+        }
+    }
+
+    private static void testEncode(Object msg, byte[] expected) {
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufEncoder());
+        assertTrue(ch.writeOutbound(msg));
+        try (Buffer buffer = ch.readOutbound()) {
+            assertWritten(buffer, expected);
+        }
+        assertFalse(ch.finish());
+    }
+
+    private static void assertWritten(Buffer buffer, byte[] expected) {
+        assertThat(buffer.readableBytes()).isEqualTo(expected.length);
+        byte[] actual = new byte[expected.length];
+        buffer.copyInto(buffer.readerOffset(), actual, 0, actual.length);
+        assertThat(actual).isEqualTo(expected);
+    }
+}
@@ -15,14 +15,19 @@
  */
 package io.netty.contrib.handler.codec.protobuf;
 
+import com.google.protobuf.CodedOutputStream;
 import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandler;
+import io.netty5.channel.ChannelHandlerContext;
 import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.CorruptedFrameException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ProtobufVarint32FrameDecoderTest {
@@ -81,4 +86,121 @@ public class ProtobufVarint32FrameDecoderTest {
             assertFalse(ch.finish());
         }
     }
+
+    @Test
+    public void testReadRawVarint32() throws Exception {
+        int[] values = { 0, 1, 127, 128, 300, 16383, 16384, 2097151, 2097152, 268435455, 268435456,
+                Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+        for (int value : values) {
+            // Both the word at a time and the byte at a time path must agree, -1 and MIN_VALUE included as the
+            // 5th byte of an unsigned varint carries bits beyond the int.
+            byte[] varint = new byte[5];
+            CodedOutputStream output = CodedOutputStream.newInstance(varint);
+            output.writeUInt32NoTag(value);
+            int length = varint.length - output.spaceLeft();
+            for (int padding = 0; padding <= Long.BYTES; padding++) {
+                try (Buffer buffer = ch.bufferAllocator().allocate(length + padding + 1)) {
+                    buffer.writeByte((byte) 42).writeBytes(varint, 0, length).skipReadableBytes(1);
+                    buffer.writerOffset(buffer.writerOffset() + padding);
+                    assertThat(ProtobufVarint32FrameDecoder.readRawVarint32(buffer)).isEqualTo(value);
+                    assertThat(buffer.readerOffset()).isEqualTo(1 + length);
+                }
+            }
+        }
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testReadRawVarint32Incomplete() {
+        for (int readable = 1; readable < 5; readable++) {
+            try (Buffer buffer = ch.bufferAllocator().allocate(readable)) {
+                for (int i = 0; i < readable; i++) {
+                    buffer.writeByte((byte) 0x80);
+                }
+                ProtobufVarint32FrameDecoder.readRawVarint32(buffer);
+                assertThat(buffer.readerOffset()).isZero();
+            }
+        }
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testReadRawVarint32Malformed() {
+        for (int readable = 5; readable <= 10; readable++) {
+            try (Buffer buffer = ch.bufferAllocator().allocate(readable)) {
+                for (int i = 0; i < readable; i++) {
+                    buffer.writeByte((byte) 0x80);
+                }
+                assertThrows(CorruptedFrameException.class,
+                        () -> ProtobufVarint32FrameDecoder.readRawVarint32(buffer));
+            }
+        }
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testDecodeManySmallFrames() throws Exception {
+        testDecodeManySmallFrames(ch);
+    }
+
+    @Test
+    public void testDrainManySmallFrames() throws Exception {
+        ch.finish();
+        testDecodeManySmallFrames(new EmbeddedChannel(new ProtobufVarint32FrameDecoder(true)));
+    }
+
+    @Test
+    public void testDrainFramesStopsWhenRemoved() {
+        ch.finish();
+        ProtobufVarint32FrameDecoder decoder = new ProtobufVarint32FrameDecoder(true);
+        EmbeddedChannel ch = new EmbeddedChannel(decoder, new ChannelHandler() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                ctx.fireChannelRead(msg);
+                if (ctx.pipeline().context(decoder) != null) {
+                    ctx.pipeline().remove(decoder);
+                }
+            }
+        });
+        byte[] b = {1, 1, 2, 2, 2, 1, 3};
+        assertTrue(ch.writeInbound(ch.bufferAllocator().allocate(b.length).writeBytes(b)));
+
+        try (Buffer expected = ch.bufferAllocator().copyOf(new byte[]{1});
+             Buffer actual = ch.readInbound()) {
+            assertThat(actual).isEqualTo(expected);
+        }
+        try (Buffer expected = ch.bufferAllocator().copyOf(new byte[]{2, 2, 2, 1, 3});
+             Buffer actual = ch.readInbound()) {
+            assertThat(actual).isEqualTo(expected);
+        }
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    private static void testDecodeManySmallFrames(EmbeddedChannel ch) throws Exception {
+        byte[] stream = new byte[64 * 1024];
+        int writerOffset = 0;
+        int frames = 0;
+        for (int size = 0; writerOffset + 2 + size < stream.length; size = (size + 7) % 300) {
+            CodedOutputStream output = CodedOutputStream.newInstance(stream, writerOffset, 2);
+            output.writeUInt32NoTag(size);
+            writerOffset += 2 - output.spaceLeft();
+            for (int i = 0; i < size; i++) {
+                stream[writerOffset++] = (byte) size;
+            }
+            frames++;
+        }
+        assertTrue(ch.writeInbound(ch.bufferAllocator().allocate(writerOffset).writeBytes(stream, 0, writerOffset)));
+
+        for (int i = 0, size = 0; i < frames; i++, size = (size + 7) % 300) {
+            try (Buffer frame = ch.readInbound()) {
+                assertThat(frame.readableBytes()).isEqualTo(size);
+                for (int j = 0; j < size; j++) {
+                    assertThat(frame.readByte()).isEqualTo((byte) size);
+                }
+            }
+        }
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
 }
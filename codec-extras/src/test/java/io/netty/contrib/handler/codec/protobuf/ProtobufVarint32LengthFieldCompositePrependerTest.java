@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import io.netty5.buffer.AllocationType;
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+import io.netty5.buffer.CompositeBuffer;
+import io.netty5.buffer.StandardAllocationTypes;
+import io.netty5.channel.ChannelOption;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.EncoderException;
+import io.netty5.util.Send;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.netty5.buffer.BufferAllocator.offHeapUnpooled;
+import static io.netty5.buffer.BufferAllocator.onHeapUnpooled;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufVarint32LengthFieldCompositePrependerTest {
+
+    private static final int[] BODY_SIZES = { 0, 1, 127, 128, 16384, 2 * 1024 * 1024 };
+
+    @Test
+    public void testCompositeOnHeap() {
+        for (int size : BODY_SIZES) {
+            testComposite(onHeapUnpooled(), size, false);
+        }
+    }
+
+    @Test
+    public void testCompositeOffHeap() {
+        for (int size : BODY_SIZES) {
+            testComposite(offHeapUnpooled(), size, false);
+        }
+    }
+
+    @Test
+    public void testCompositeReadOnly() {
+        for (int size : BODY_SIZES) {
+            testComposite(offHeapUnpooled(), size, true);
+        }
+    }
+
+    @Test
+    public void testSeparateBuffers() {
+        for (int size : BODY_SIZES) {
+            byte[] body = newBody(size);
+            EmbeddedChannel ch = new EmbeddedChannel(new ProtobufVarint32LengthFieldCompositePrepender(false));
+            assertTrue(ch.writeOutbound(newBodyBuffer(onHeapUnpooled(), body, false)));
+            try (Buffer header = ch.readOutbound();
+                 Buffer actualBody = ch.readOutbound()) {
+                assertThat(header.readableBytes())
+                        .isEqualTo(ProtobufVarint32LengthFieldPrepender.computeRawVarint32Size(size));
+                assertThat(toByteArray(actualBody)).isEqualTo(body);
+                try (Buffer expected = prependWithCopy(body)) {
+                    expected.skipReadableBytes(header.readableBytes());
+                    assertThat(actualBody).isEqualTo(expected);
+                }
+            }
+            assertNull(ch.readOutbound());
+            assertFalse(ch.finish());
+        }
+    }
+
+    @Test
+    public void testComposeFailureReleasesBuffers() {
+        List<Send<Buffer>> sends = new ArrayList<>();
+        BufferAllocator allocator = new BufferAllocator() {
+            @Override
+            public boolean isPooling() {
+                return false;
+            }
+
+            @Override
+            public AllocationType getAllocationType() {
+                return StandardAllocationTypes.ON_HEAP;
+            }
+
+            @Override
+            public Buffer allocate(int size) {
+                return onHeapUnpooled().allocate(size);
+            }
+
+            @Override
+            public CompositeBuffer compose(Iterable<Send<Buffer>> sends0) {
+                sends0.forEach(sends::add);
+                throw new IllegalStateException("compose failed");
+            }
+
+            @Override
+            public Supplier<Buffer> constBufferSupplier(byte[] bytes) {
+                return onHeapUnpooled().constBufferSupplier(bytes);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufVarint32LengthFieldCompositePrepender());
+        ch.setOption(ChannelOption.BUFFER_ALLOCATOR, allocator);
+        Buffer msg = newBodyBuffer(onHeapUnpooled(), newBody(128), false);
+        assertThrows(EncoderException.class, () -> ch.writeOutbound(msg));
+        assertFalse(msg.isAccessible());
+        assertThat(sends).hasSize(2);
+        for (Send<Buffer> send : sends) {
+            // A closed Send can no longer be received, so the buffer it carried has been released.
+            assertThrows(IllegalStateException.class, send::receive);
+        }
+        assertFalse(ch.finish());
+    }
+
+    private static void testComposite(BufferAllocator allocator, int size, boolean readOnly) {
+        byte[] body = newBody(size);
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufVarint32LengthFieldCompositePrepender());
+        assertTrue(ch.writeOutbound(newBodyBuffer(allocator, body, readOnly)));
+        try (Buffer actual = ch.readOutbound();
+             Buffer expected = prependWithCopy(body)) {
+            assertThat(actual).isInstanceOf(CompositeBuffer.class);
+            assertThat(actual.readOnly()).isEqualTo(readOnly);
+            assertThat(actual).isEqualTo(expected);
+        }
+        assertNull(ch.readOutbound());
+        assertFalse(ch.finish());
+    }
+
+    private static Buffer prependWithCopy(byte[] body) {
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufVarint32LengthFieldPrepender());
+        assertTrue(ch.writeOutbound(onHeapUnpooled().copyOf(body)));
+        Buffer buffer = ch.readOutbound();
+        assertFalse(ch.finish());
+        return buffer;
+    }
+
+    /**
+     * Creates a buffer holding {@code body} after a few bytes that have already been read, followed by a few
+     * writable bytes, so that only the readable part can end up in the output.
+     */
+    private static Buffer newBodyBuffer(BufferAllocator allocator, byte[] body, boolean readOnly) {
+        Buffer buffer = allocator.allocate(body.length + 16);
+        buffer.writeLong(-1).writeBytes(body).skipReadableBytes(Long.BYTES);
+        return readOnly ? buffer.makeReadOnly() : buffer;
+    }
+
+    private static byte[] newBody(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    private static byte[] toByteArray(Buffer buffer) {
+        byte[] array = new byte[buffer.readableBytes()];
+        buffer.copyInto(buffer.readerOffset(), array, 0, array.length);
+        return array;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.protobuf;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProtobufVarint32LengthFieldEncoderTest {
+
+    @Test
+    public void testSameOutputAsPrepender() {
+        for (int minSize : new int[] { 0, 1, 127, 128, 16383, 16384, 65536 }) {
+            testSameOutputAsPrepender(minSize);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (int minSize : new int[] { 0, 300, 70000 }) {
+            testRoundTrip(minSize);
+        }
+    }
+
+    private static void testSameOutputAsPrepender(int minSize) {
+        Struct message = newMessage(minSize);
+
+        EmbeddedChannel fused = new EmbeddedChannel(new ProtobufVarint32LengthFieldEncoder());
+        EmbeddedChannel separate = new EmbeddedChannel(
+                new ProtobufVarint32LengthFieldPrepender(), new ProtobufEncoder());
+        assertTrue(fused.writeOutbound(message));
+        assertTrue(separate.writeOutbound(message.toBuilder()));
+
+        try (Buffer expected = separate.readOutbound();
+             Buffer actual = fused.readOutbound()) {
+            assertThat(actual.capacity()).isEqualTo(actual.readableBytes());
+            assertThat(actual).isEqualTo(expected);
+        }
+        assertFalse(fused.finish());
+        assertFalse(separate.finish());
+    }
+
+    private static void testRoundTrip(int minSize) {
+        Struct message = newMessage(minSize);
+
+        EmbeddedChannel ch = new EmbeddedChannel(new ProtobufVarint32FrameDecoder(),
+                new ProtobufDecoder(Struct.getDefaultInstance()), new ProtobufVarint32LengthFieldEncoder());
+        assertTrue(ch.writeOutbound(message));
+        assertTrue(ch.writeInbound((Object) ch.readOutbound()));
+        assertThat((Object) ch.readInbound()).isEqualTo(message);
+        assertFalse(ch.finish());
+    }
+
+    private static Struct newMessage(int minSize) {
+        Struct.Builder builder = Struct.newBuilder();
+        int padding = minSize;
+        while (builder.build().getSerializedSize() < minSize) {
+            builder.putFields("padding", Value.newBuilder().setStringValue("x".repeat(padding)).build());
+            padding++;
+        }
+        return builder.build();
+    }
+}
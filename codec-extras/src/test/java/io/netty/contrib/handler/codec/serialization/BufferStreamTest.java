@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.buffer.BufferAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferStreamTest {
+
+    @Test
+    public void testWrite() {
+        try (Buffer buffer = BufferAllocator.onHeapUnpooled().allocate(8)) {
+            byte[] expected = writeAll(new BufferOutputStream(buffer));
+            assertArrayEquals(expected, toArray(buffer));
+        }
+    }
+
+    @Test
+    public void testWritesIntoCompositeBuffer() {
+        BufferAllocator allocator = BufferAllocator.offHeapUnpooled();
+        try (Buffer buffer = allocator.compose(allocator.allocate(16).send())) {
+            byte[] expected = writeAll(new BufferOutputStream(buffer));
+            assertArrayEquals(expected, toArray(buffer));
+        }
+    }
+
+    @Test
+    public void testDropsBytesWithoutBuffer() {
+        BufferOutputStream output = new BufferOutputStream();
+        writeAll(output);
+        try (Buffer buffer = BufferAllocator.onHeapUnpooled().allocate(4)) {
+            output.buffer(buffer);
+            output.writeInt(42);
+            output.buffer(null);
+            output.writeInt(43);
+            assertEquals(4, buffer.readableBytes());
+            assertEquals(42, buffer.readInt());
+        }
+    }
+
+    @Test
+    public void testRead() {
+        try (Buffer buffer = BufferAllocator.onHeapUnpooled().allocate(16)) {
+            byte[] expected = writeAll(new BufferOutputStream(buffer));
+            BufferInputStream input = new BufferInputStream(buffer);
+            assertEquals(expected.length, input.available());
+
+            byte[] actual = new byte[expected.length];
+            actual[0] = (byte) input.read();
+            assertEquals(10, input.skip(10));
+            assertEquals(actual.length - 11, input.read(actual, 11, actual.length));
+            System.arraycopy(expected, 1, actual, 1, 10);
+            assertArrayEquals(expected, actual);
+
+            assertEquals(0, input.available());
+            assertEquals(-1, input.read());
+            assertEquals(-1, input.read(actual, 0, 4));
+            assertEquals(0, input.skip(4));
+            assertTrue(buffer.isAccessible());
+        }
+    }
+
+    private static byte[] writeAll(BufferOutputStream out) {
+        byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        out.writeInt(0x00010203);
+        out.write(4);
+        out.write(bytes, 5, 995);
+
+        byte[] expected = new byte[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        return expected;
+    }
+
+    private static byte[] toArray(Buffer buffer) {
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.copyInto(buffer.readerOffset(), bytes, 0, bytes.length);
+        return bytes;
+    }
+}
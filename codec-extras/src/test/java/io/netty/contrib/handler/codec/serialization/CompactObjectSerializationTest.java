@@ -18,8 +18,11 @@ package io.netty.contrib.handler.codec.serialization;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public class CompactObjectSerializationTest {
@@ -33,4 +36,26 @@ public class CompactObjectSerializationTest {
         out.writeObject(List.class);
         Assertions.assertSame(List.class, in.readObject());
     }
+
+    @Test
+    public void testClassNameDictionary() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ClassNameDictionary outDictionary = new ClassNameDictionary();
+        try (CompactObjectOutputStream out = new CompactObjectOutputStream(bytes, outDictionary)) {
+            out.writeObject(new ArrayList<>(List.of(1, 2)));
+            out.writeObject(new ArrayList<>(List.of(3)));
+        }
+        outDictionary.commit();
+
+        ClassNameDictionary inDictionary = new ClassNameDictionary();
+        try (CompactObjectInputStream in = new CompactObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()), ClassResolvers.cacheDisabled(null), inDictionary)) {
+            Assertions.assertEquals(List.of(1, 2), in.readObject());
+            Assertions.assertEquals(List.of(3), in.readObject());
+        }
+        Assertions.assertEquals(outDictionary.idOf(ArrayList.class.getName()),
+                inDictionary.idOf(ArrayList.class.getName()));
+        Assertions.assertEquals(outDictionary.idOf(Integer.class.getName()),
+                inDictionary.idOf(Integer.class.getName()));
+    }
 }
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
@@ -46,6 +47,26 @@ public class CompatibleObjectEncoderTest {
         assertFalse(channel.finishAndReleaseAll());
     }
 
+    @Test
+    public void testPredictsEncodedSize() throws Exception {
+        CompatibleObjectEncoder encoder = new CompatibleObjectEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder);
+        for (int i = 0; i < 8; i++) {
+            byte[] original = new byte[4096];
+            original[i] = 1;
+            channel.writeOutbound(original);
+            try (Buffer buf = channel.readOutbound();
+                 ObjectInputStream ois = new ObjectInputStream(new BufferInputStream(buf.send()))) {
+                assertArrayEquals(original, (byte[]) ois.readObject());
+            }
+        }
+        assertFalse(channel.finishAndReleaseAll());
+
+        // Only the first message did not fit into the initial buffer.
+        assertEquals(8, encoder.sizePredictor().messages());
+        assertEquals(1, encoder.sizePredictor().reallocations());
+    }
+
     private static final class TestSerializable implements Serializable {
         private static final long serialVersionUID = 2235771472534930360L;
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectDecoderInputStreamTest {
+
+    @Test
+    public void testReadsObjectsIndependently() throws Exception {
+        // Both frames refer back to objects within themselves, which must not resolve to the previous frame.
+        String a = "a";
+        String b = "b";
+        byte[] bytes = encode(new ArrayList<>(List.of(a, a)), new ArrayList<>(List.of(b, b)), "x".repeat(5000), 42);
+
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(new ByteArrayInputStream(bytes))) {
+            List<?> first = (List<?>) in.readObject();
+            assertEquals(List.of("a", "a"), first);
+            assertSame(first.get(0), first.get(1));
+            List<?> second = (List<?>) in.readObject();
+            assertEquals(List.of("b", "b"), second);
+            assertSame(second.get(0), second.get(1));
+            assertEquals("x".repeat(5000), in.readObject());
+            assertEquals(42, in.readObject());
+            assertThrows(EOFException.class, in::readObject);
+        }
+    }
+
+    @Test
+    public void testDoesNotReadPastFrame() throws Exception {
+        byte[] truncated = encode("truncated");
+        // Cut off the end of the object, and shorten its frame accordingly.
+        truncated = Arrays.copyOf(truncated, truncated.length - 3);
+        ByteBuffer.wrap(truncated).putInt(0, truncated.length - 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(encode("before"));
+        bytes.write(truncated);
+        bytes.write(encode("after"));
+
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("before", in.readObject());
+            assertThrows(EOFException.class, in::readObject);
+            assertEquals("after", in.readObject());
+        }
+    }
+
+    @Test
+    public void testReleasesGrownFrame() throws Exception {
+        int size = 2 * 1048576;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(encode("small", "x".repeat(size)));
+        // A frame which ends before its announced length.
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(size);
+        out.write(new byte[size / 2]);
+
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()), 4 * size)) {
+            assertEquals("small", in.readObject());
+            assertTrue(in.retainedCapacity() > 0);
+            assertEquals("x".repeat(size), in.readObject());
+            assertEquals(0, in.retainedCapacity());
+            assertThrows(EOFException.class, in::readObject);
+            // The buffer grew for the truncated frame, which must not pin its memory either.
+            assertEquals(0, in.retainedCapacity());
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidFrames() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(1025);
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()), 1024)) {
+            assertThrows(StreamCorruptedException.class, in::readObject);
+            assertThrows(StreamCorruptedException.class, in::readObject);
+        }
+    }
+
+    private static byte[] encode(Serializable... objects) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectEncoderOutputStream out = new ObjectEncoderOutputStream(bytes)) {
+            for (Serializable object : objects) {
+                out.writeObject(object);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty.contrib.handler.codec.ManualExecutor;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.ChannelHandlerAdapter;
+import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.DecoderException;
+import io.netty5.handler.codec.EncoderException;
+import io.netty5.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectDecoderTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Test
+    public void testDecode() {
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectDecoder(ClassResolvers.cacheDisabled(null)));
+        for (Buffer frame : encode(List.of("test", 42))) {
+            assertTrue(ch.writeInbound(frame));
+        }
+        assertEquals("test", ch.readInbound());
+        assertEquals(42, (Integer) ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testOffloadKeepsOrder() throws Exception {
+        List<Serializable> objects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            objects.add("object-" + i);
+        }
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(executor, 1000));
+        for (Buffer frame : encode(objects)) {
+            ch.writeInbound(frame);
+        }
+        // Nothing is deserialized on the event loop, and only one frame is handed to the executor at a time.
+        assertNull(ch.readInbound());
+        assertEquals(1, executor.pendingTasks());
+        assertEquals(objects.size(), executor.runAll());
+        for (Serializable object : objects) {
+            assertEquals(object, ch.readInbound());
+        }
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testOffloadFailureIsPassedOn() throws Exception {
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(executor, 1000));
+        // A frame which does not contain a valid serialized object.
+        ch.writeInbound(ch.bufferAllocator().allocate(8).writeInt(4).writeInt(42));
+        executor.runAll();
+        assertThrows(DecoderException.class, ch::checkException);
+        // The next frame is decoded as usual.
+        for (Buffer frame : encode(List.of("test"))) {
+            ch.writeInbound(frame);
+        }
+        executor.runAll();
+        assertEquals("test", ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testOffloadSuspendsReading() throws Exception {
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(executor, 2));
+
+        List<Serializable> objects = List.of("a", "b", "c", "d", "e");
+        for (Buffer frame : encode(objects)) {
+            ch.writeInbound(frame);
+        }
+        // One frame is being deserialized and four are pending.
+        assertFalse(ch.getOption(ChannelOption.AUTO_READ));
+
+        // Reading resumes once no more than half of the allowed frames are pending.
+        assertTrue(executor.runNext());
+        assertTrue(executor.runNext());
+        assertFalse(ch.getOption(ChannelOption.AUTO_READ));
+        assertTrue(executor.runNext());
+        assertTrue(ch.getOption(ChannelOption.AUTO_READ));
+
+        executor.runAll();
+        for (Serializable object : objects) {
+            assertEquals(object, ch.readInbound());
+        }
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testOffloadDropsResultsOnChannelInactive() throws Exception {
+        EventRecorder recorder = new EventRecorder();
+        EmbeddedChannel ch = new EmbeddedChannel(newDecoder(executor, 1000), recorder);
+        for (Buffer frame : encode(List.of("a", "b"))) {
+            ch.writeInbound(frame);
+        }
+        ch.pipeline().fireChannelInactive();
+        assertEquals(List.of("inactive"), recorder.events);
+
+        // Neither the object which was being deserialized nor the pending one are passed on after channelInactive.
+        assertEquals(1, executor.runAll());
+        ch.runPendingTasks();
+        assertEquals(List.of("inactive"), recorder.events);
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testOffloadDiscardsPendingFramesOnRemoval() throws Exception {
+        ObjectDecoder decoder = newDecoder(executor, 1);
+        EmbeddedChannel ch = new EmbeddedChannel(decoder);
+        for (Buffer frame : encode(List.of("a", "b", "c"))) {
+            ch.writeInbound(frame);
+        }
+        assertFalse(ch.getOption(ChannelOption.AUTO_READ));
+
+        ch.pipeline().remove(decoder);
+        assertTrue(ch.getOption(ChannelOption.AUTO_READ));
+        assertEquals(1, executor.runAll());
+        ch.runPendingTasks();
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionary() {
+        List<Buffer> frames = encode(List.of(new Message("a"), new Message("b")), true);
+        // The second frame refers to the class name sent with the first one.
+        assertTrue(frames.get(1).readableBytes() < frames.get(0).readableBytes());
+
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), true));
+        for (Buffer frame : frames) {
+            assertTrue(ch.writeInbound(frame));
+        }
+        assertEquals("a", ((Message) ch.readInbound()).text);
+        assertEquals("b", ((Message) ch.readInbound()).text);
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryIsRolledBackOnFailure() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ObjectEncoder(true));
+        assertThrows(EncoderException.class, () -> encoder.writeOutbound(new Unserializable()));
+        assertTrue(encoder.writeOutbound(new Message("a")));
+        assertTrue(encoder.writeOutbound(new Message("b")));
+
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), true));
+        for (Buffer frame; (frame = encoder.readOutbound()) != null;) {
+            assertTrue(ch.writeInbound(frame));
+        }
+        assertEquals("a", ((Message) ch.readInbound()).text);
+        assertEquals("b", ((Message) ch.readInbound()).text);
+        assertFalse(encoder.finish());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryRequiresDecoderSupport() {
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectDecoder(ClassResolvers.cacheDisabled(null)));
+        Buffer frame = encode(List.of(new Message("a")), true).get(0);
+        assertThrows(DecoderException.class, () -> ch.writeInbound(frame));
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryDetectsMissedFrame() {
+        List<Buffer> frames = encode(List.of(new Message("a"), new Message("b"), new Other()), true);
+        frames.get(0).close();
+
+        // The second frame refers to the class name of the first one by its id.
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), true));
+        DecoderException e = assertThrows(DecoderException.class, () -> ch.writeInbound(frames.get(1)));
+        assertInstanceOf(StreamCorruptedException.class, e.getCause());
+        frames.get(2).close();
+        assertFalse(ch.finish());
+
+        // The third frame sends a new class name, but not with the id the decoder expects.
+        List<Buffer> otherFrames = encode(List.of(new Message("a"), new Other()), true);
+        otherFrames.get(0).close();
+        EmbeddedChannel ch2 = new EmbeddedChannel(
+                new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), true));
+        e = assertThrows(DecoderException.class, () -> ch2.writeInbound(otherFrames.get(1)));
+        assertInstanceOf(StreamCorruptedException.class, e.getCause());
+        assertFalse(ch2.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryClosesOnTooLongFrame() {
+        List<Buffer> frames = encode(List.of(new Message("a"), new Message("b")), true);
+        int maxObjectSize = frames.get(0).readableBytes() - 1;
+        assertTrue(frames.get(1).readableBytes() <= maxObjectSize);
+
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ObjectDecoder(maxObjectSize, ClassResolvers.cacheDisabled(null), true));
+        assertThrows(TooLongFrameException.class, () -> ch.writeInbound(frames.get(0)));
+        // The class name of the discarded frame is missing, so the channel can not be used anymore.
+        assertFalse(ch.isOpen());
+        frames.get(1).close();
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryClosesOnFailedResolve() {
+        ArrayList<Serializable> first = new ArrayList<>(List.of(new Other(), new Message("a")));
+        List<Buffer> frames = encode(List.of(first, new Message("b")), true);
+
+        ClassResolver resolver = ClassResolvers.cacheDisabled(null);
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectDecoder(1048576, className -> {
+            if (className.equals(Other.class.getName())) {
+                throw new ClassNotFoundException(className);
+            }
+            return resolver.resolve(className);
+        }, true));
+        // Deserializing stops before the class name of Message, which the second frame refers to by its id.
+        assertThrows(DecoderException.class, () -> ch.writeInbound(frames.get(0)));
+        assertFalse(ch.isOpen());
+        frames.get(1).close();
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryOffloadClosesOnFailure() throws Exception {
+        List<Buffer> frames = encode(List.of(new Other(), new Message("a")), true);
+
+        ClassResolver resolver = ClassResolvers.cacheDisabled(null);
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectDecoder(1048576, className -> {
+            if (className.equals(Other.class.getName())) {
+                throw new ClassNotFoundException(className);
+            }
+            return resolver.resolve(className);
+        }, true, executor, 1000));
+        // Queue both frames before the first one fails.
+        for (Buffer frame : frames) {
+            ch.writeInbound(frame);
+        }
+        // The second frame is discarded without being deserialized.
+        assertEquals(1, executor.runAll());
+        assertThrows(DecoderException.class, ch::checkException);
+        assertFalse(ch.isOpen());
+        assertNull(ch.readInbound());
+        assertFalse(ch.finish());
+    }
+
+    @Test
+    public void testClassNameDictionaryOffload() throws Exception {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(new Message("message-" + i));
+        }
+        EmbeddedChannel ch = new EmbeddedChannel(
+                new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), true, executor, 1000));
+        for (Buffer frame : encode(messages, true)) {
+            ch.writeInbound(frame);
+        }
+        executor.runAll();
+        for (Message message : messages) {
+            assertEquals(message.text, ((Message) ch.readInbound()).text);
+        }
+        assertFalse(ch.finish());
+    }
+
+    private static ObjectDecoder newDecoder(Executor executor, int maxPendingFrames) {
+        return new ObjectDecoder(1048576, ClassResolvers.cacheDisabled(null), executor, maxPendingFrames);
+    }
+
+    private static List<Buffer> encode(List<? extends Serializable> objects) {
+        return encode(objects, false);
+    }
+
+    private static List<Buffer> encode(List<? extends Serializable> objects, boolean classNameDictionary) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ObjectEncoder(classNameDictionary));
+        List<Buffer> frames = new ArrayList<>();
+        for (Serializable object : objects) {
+            assertTrue(encoder.writeOutbound(object));
+            frames.add(encoder.readOutbound());
+        }
+        assertFalse(encoder.finish());
+        return frames;
+    }
+
+    private static final class Message implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String text;
+
+        Message(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Other implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Unserializable implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Object field = new Object();
+    }
+
+    /**
+     * Records the events which reach the end of the pipeline, in the order they arrived.
+     */
+    private static final class EventRecorder extends ChannelHandlerAdapter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            events.add("read");
+        }
+
+        @Override
+        public void channelExceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            events.add("exception");
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            events.add("inactive");
+            ctx.fireChannelInactive();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectEncoderOutputStreamTest {
+
+    @Test
+    public void testWritesSameBytesAsObjectEncoder() throws Exception {
+        byte[] huge = new byte[2 * 1048576];
+        Arrays.fill(huge, (byte) 42);
+        // The huge object makes the scratch buffer grow and be dropped afterwards.
+        List<Serializable> objects = List.of("first", huge, 42L, "x".repeat(1000), "last");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectEncoderOutputStream out = new ObjectEncoderOutputStream(bytes, 16)) {
+            for (Serializable object : objects) {
+                out.writeObject(object);
+            }
+            assertEquals(bytes.size(), out.size());
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectEncoder());
+        for (Serializable object : objects) {
+            assertTrue(ch.writeOutbound(object));
+            try (Buffer frame = ch.readOutbound()) {
+                byte[] frameBytes = new byte[frame.readableBytes()];
+                frame.readBytes(frameBytes, 0, frameBytes.length);
+                expected.write(frameBytes);
+            }
+        }
+        assertFalse(ch.finish());
+        assertArrayEquals(expected.toByteArray(), bytes.toByteArray());
+
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()), 4 * 1048576)) {
+            assertEquals("first", in.readObject());
+            assertArrayEquals(huge, (byte[]) in.readObject());
+            assertEquals(42L, in.readObject());
+            assertEquals("x".repeat(1000), in.readObject());
+            assertEquals("last", in.readObject());
+        }
+    }
+
+    @Test
+    public void testFailedObjectIsNotWritten() throws Exception {
+        // The huge array makes the scratch buffer grow before the unserializable object fails the write.
+        List<Object> failing = List.of(new byte[2 * 1048576], new Object());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectEncoderOutputStream out = new ObjectEncoderOutputStream(bytes, 16)) {
+            assertThrows(NotSerializableException.class, () -> out.writeObject(failing));
+            assertEquals(0, out.size());
+            out.writeObject("next");
+        }
+
+        try (ObjectDecoderInputStream in = new ObjectDecoderInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("next", in.readObject());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.contrib.handler.codec.serialization;
+
+import io.netty.contrib.handler.codec.EncodedSizePredictor;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.embedded.EmbeddedChannel;
+import io.netty5.handler.codec.EncoderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectEncoderTest {
+
+    private static final List<Serializable> OBJECTS = List.of(
+            "test", 42, new ArrayList<>(List.of("a", "a", 1L)), new int[] { 1, 2, 3 }, new HashMap<>(Map.of("key", 4.2)), "test");
+
+    @Test
+    public void testReusedOutputStreamWritesSameBytes() {
+        assertEquals(encode(new ObjectEncoder(new EncodedSizePredictor(), false, false)),
+                encode(new ObjectEncoder(new EncodedSizePredictor(), false, true)));
+    }
+
+    @Test
+    public void testReusedOutputStreamWritesSameBytesWithClassNameDictionary() {
+        assertEquals(encode(new ObjectEncoder(new EncodedSizePredictor(), true, false)),
+                encode(new ObjectEncoder(new EncodedSizePredictor(), true, true)));
+    }
+
+    @Test
+    public void testReusedOutputStreamRecoversFromFailure() {
+        EmbeddedChannel ch = new EmbeddedChannel(new ObjectEncoder(new EncodedSizePredictor(), false, true));
+        assertTrue(ch.writeOutbound("a"));
+        assertThrows(EncoderException.class, () -> ch.writeOutbound(new Unserializable()));
+        assertTrue(ch.writeOutbound("b"));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new ObjectDecoder(ClassResolvers.cacheDisabled(null)));
+        for (Buffer frame; (frame = ch.readOutbound()) != null;) {
+            assertTrue(decoder.writeInbound(frame));
+        }
+        assertEquals("a", decoder.readInbound());
+        assertEquals("b", decoder.readInbound());
+        assertFalse(ch.finish());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void testReusedOutputStreamIsNotSharable() {
+        assertTrue(new ObjectEncoder().isSharable());
+        assertFalse(new ObjectEncoder(new EncodedSizePredictor(), false, true).isSharable());
+    }
+
+    private static List<List<Byte>> encode(ObjectEncoder encoder) {
+        EmbeddedChannel ch = new EmbeddedChannel(encoder);
+        List<List<Byte>> frames = new ArrayList<>();
+        for (Serializable object : OBJECTS) {
+            assertTrue(ch.writeOutbound(object));
+            try (Buffer frame = ch.readOutbound()) {
+                List<Byte> bytes = new ArrayList<>();
+                while (frame.readableBytes() > 0) {
+                    bytes.add(frame.readByte());
+                }
+                frames.add(bytes);
+            }
+        }
+        assertFalse(ch.finish());
+        return frames;
+    }
+
+    private static final class Unserializable implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Object field = new Object();
+    }
+}
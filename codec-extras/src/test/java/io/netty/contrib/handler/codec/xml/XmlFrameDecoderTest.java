@@ -51,7 +51,12 @@ public class XmlFrameDecoderTest {
     }
 
     private static void testDecodeWithXml(List<String> xmlFrames, Object... expected) {
-        EmbeddedChannel ch = new EmbeddedChannel(new XmlFrameDecoder(1048576));
+        testDecodeWithXml(true, xmlFrames, expected);
+        testDecodeWithXml(false, xmlFrames, expected);
+    }
+
+    private static void testDecodeWithXml(boolean copyFrames, List<String> xmlFrames, Object... expected) {
+        EmbeddedChannel ch = new EmbeddedChannel(new XmlFrameDecoder(1048576, copyFrames));
         Exception cause = null;
         try {
             for (String xmlFrame : xmlFrames) {
@@ -194,6 +199,35 @@ public class XmlFrameDecoderTest {
         }
     }
 
+    @Test
+    public void testFramingWithIncompleteLookAhead() {
+        testDecodeWithXml(Arrays.asList("<a", "/", ">"), "<a/>");
+        testDecodeWithXml(Arrays.asList("<a>x<", "/a", ">"), "<a>x</a>");
+        testDecodeWithXml(Arrays.asList("<a><!", "-", "- comment --></a>"), "<a><!-- comment --></a>");
+        testDecodeWithXml(Arrays.asList("<a><![CD", "ATA[<b>]]", "></a>"), "<a><![CDATA[<b>]]></a>");
+        testDecodeWithXml(Arrays.asList("  <a>", "</a>  <b", "/><c></c>"), "<a></a>", "<b/>", "<c></c>");
+    }
+
+    @Test
+    public void testDecodeWithSampleXmlInChunks() {
+        for (final String xmlSample : xmlSamples) {
+            // A declaration or a comment in front of the root element is emitted as a frame of its own when the
+            // received data ends right after it, so the prolog is always sent along with the root element start.
+            int rootStart = 0;
+            while (!(xmlSample.charAt(rootStart) == '<' && Character.isLetter(xmlSample.charAt(rootStart + 1)))) {
+                rootStart++;
+            }
+            for (int chunkSize = 1; chunkSize <= 13; chunkSize++) {
+                List<String> chunks = new ArrayList<>();
+                chunks.add(xmlSample.substring(0, rootStart + 2));
+                for (int i = rootStart + 2; i < xmlSample.length(); i += chunkSize) {
+                    chunks.add(xmlSample.substring(i, Math.min(xmlSample.length(), i + chunkSize)));
+                }
+                testDecodeWithXml(chunks, xmlSample);
+            }
+        }
+    }
+
     private String sample(String number) throws IOException, URISyntaxException {
         String path = "io/netty/handler/codec/xml/sample-" + number + ".xml";
         URL url = getClass().getClassLoader().getResource(path);